@@ -31,4 +31,21 @@ public @interface UpdateProvider {
   Class<?> type();
 
   String method();
+
+  /**
+   * Whether the provider method returns the same SQL whatever the parameter values are. When <code>true</code>,
+   * the method is only invoked once per parameter type and the parsed SQL is reused.
+   *
+   * @since 3.5.0
+   */
+  boolean deterministic() default false;
+
+  /**
+   * Whether the parsed SQL may be shared, through the SQL source cache of the configuration, with other calls that
+   * return the same SQL. Only enable it for methods returning a few distinct statements, e.g. binding values with
+   * <code>#{}</code> instead of inlining them.
+   *
+   * @since 3.5.0
+   */
+  boolean cacheable() default false;
 }
@@ -0,0 +1,57 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The {@link MapperMethod}s called by a mapper implementation generated by {@link MapperImplementationProcessor},
+ * each resolved the first time it is called. As with the proxy, a method without a statement only fails when it is
+ * called.
+ *
+ * @since 3.5.0
+ */
+public final class GeneratedMapperMethods {
+
+  private final Class<?> mapperInterface;
+  private final Method[] methods;
+  private final Configuration configuration;
+  private final AtomicReferenceArray<MapperMethod> mapperMethods;
+
+  GeneratedMapperMethods(Class<?> mapperInterface, Method[] methods, Configuration configuration) {
+    this.mapperInterface = mapperInterface;
+    this.methods = methods;
+    this.configuration = configuration;
+    this.mapperMethods = new AtomicReferenceArray<>(methods.length);
+  }
+
+  /**
+   * @param index the index of the method in the <code>METHODS</code> of the generated class
+   */
+  public MapperMethod get(int index) {
+    MapperMethod mapperMethod = mapperMethods.get(index);
+    if (mapperMethod == null) {
+      // racing threads resolve equivalent methods, so there is no need to lock
+      mapperMethod = new MapperMethod(mapperInterface, methods[index], configuration);
+      mapperMethods.lazySet(index, mapperMethod);
+    }
+    return mapperMethod;
+  }
+
+}
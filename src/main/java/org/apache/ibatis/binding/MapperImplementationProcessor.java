@@ -0,0 +1,207 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates, at build time, a concrete implementation of every mapper interface annotated
+ * with {@link org.apache.ibatis.annotations.Mapper}. When the generated class is on the classpath
+ * {@link MapperProxyFactory} instantiates it instead of creating a JDK dynamic proxy, so calls are dispatched
+ * directly to a {@link MapperMethod} resolved on the first call, see {@link GeneratedMapperMethods}.
+ * <p>
+ * The processor is not registered as a service; enable it explicitly, e.g. with
+ * {@code -processor org.apache.ibatis.binding.MapperImplementationProcessor} or the
+ * {@code annotationProcessors} setting of the maven-compiler-plugin. Interfaces that declare type parameters or
+ * generic methods are skipped and keep using the proxy.
+ *
+ * @since 3.5.0
+ */
+@SupportedAnnotationTypes("org.apache.ibatis.annotations.Mapper")
+public class MapperImplementationProcessor extends AbstractProcessor {
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.INTERFACE) {
+          processMapper((TypeElement) element);
+        }
+      }
+    }
+    return false;
+  }
+
+  private void processMapper(TypeElement mapper) {
+    if (!mapper.getTypeParameters().isEmpty()) {
+      note(mapper, "generic mapper interfaces are not supported");
+      return;
+    }
+    if (mapper.getNestingKind() != NestingKind.TOP_LEVEL && !mapper.getModifiers().contains(Modifier.STATIC)) {
+      note(mapper, "only top level and static nested mapper interfaces are supported");
+      return;
+    }
+    List<ExecutableElement> methods = new ArrayList<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(mapper))) {
+      if (method.getModifiers().contains(Modifier.ABSTRACT)
+          && ((TypeElement) method.getEnclosingElement()).getKind() == ElementKind.INTERFACE) {
+        if (!method.getTypeParameters().isEmpty()) {
+          note(mapper, "generic method " + method.getSimpleName() + " is not supported");
+          return;
+        }
+        methods.add(method);
+      }
+    }
+    try {
+      writeImplementation(mapper, methods);
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not generate mapper implementation. Cause: " + e, mapper);
+    }
+  }
+
+  private void writeImplementation(TypeElement mapper, List<ExecutableElement> methods) throws IOException {
+    final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(mapper);
+    final String binaryName = processingEnv.getElementUtils().getBinaryName(mapper).toString();
+    final String className = binaryName.substring(binaryName.lastIndexOf('.') + 1)
+        + MapperProxyFactory.GENERATED_IMPLEMENTATION_SUFFIX;
+    final String mapperName = mapper.getQualifiedName().toString();
+    final DeclaredType mapperType = (DeclaredType) mapper.asType();
+
+    try (PrintWriter out = new PrintWriter(
+        processingEnv.getFiler().createSourceFile(binaryName + MapperProxyFactory.GENERATED_IMPLEMENTATION_SUFFIX, mapper).openWriter())) {
+      if (!pkg.isUnnamed()) {
+        out.println("package " + pkg.getQualifiedName() + ";");
+        out.println();
+      }
+      out.println("/**");
+      out.println(" * Generated by " + getClass().getName() + ". Do not edit.");
+      out.println(" */");
+      out.println("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+      out.println("public final class " + className + " implements " + mapperName + " {");
+      out.println();
+      out.println("  public static final java.lang.reflect.Method[] METHODS;");
+      out.println();
+      out.println("  static {");
+      out.println("    try {");
+      out.println("      METHODS = new java.lang.reflect.Method[] {");
+      for (ExecutableElement method : methods) {
+        StringBuilder lookup = new StringBuilder("        ").append(mapperName).append(".class.getMethod(\"")
+            .append(method.getSimpleName()).append('"');
+        for (VariableElement parameter : method.getParameters()) {
+          lookup.append(", ").append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(".class");
+        }
+        out.println(lookup.append("),"));
+      }
+      out.println("      };");
+      out.println("    } catch (NoSuchMethodException e) {");
+      out.println("      throw new ExceptionInInitializerError(e);");
+      out.println("    }");
+      out.println("  }");
+      out.println();
+      out.println("  private final org.apache.ibatis.session.SqlSession sqlSession;");
+      out.println("  private final org.apache.ibatis.binding.GeneratedMapperMethods mapperMethods;");
+      out.println();
+      out.println("  public " + className + "(org.apache.ibatis.session.SqlSession sqlSession, org.apache.ibatis.binding.GeneratedMapperMethods mapperMethods) {");
+      out.println("    this.sqlSession = sqlSession;");
+      out.println("    this.mapperMethods = mapperMethods;");
+      out.println("  }");
+      for (int i = 0; i < methods.size(); i++) {
+        out.println();
+        writeMethod(out, i, methods.get(i), mapperType);
+      }
+      out.println();
+      out.println("}");
+    }
+  }
+
+  private void writeMethod(PrintWriter out, int index, ExecutableElement method, DeclaredType mapperType) {
+    // resolves the type arguments of generic super interfaces
+    final ExecutableType type = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(mapperType, method);
+    final TypeMirror returnType = type.getReturnType();
+    final List<? extends TypeMirror> parameterTypes = type.getParameterTypes();
+
+    StringBuilder signature = new StringBuilder("  public ").append(returnType).append(' ')
+        .append(method.getSimpleName()).append('(');
+    StringBuilder args = new StringBuilder();
+    for (int i = 0; i < parameterTypes.size(); i++) {
+      if (i > 0) {
+        signature.append(", ");
+        args.append(", ");
+      }
+      String parameterType = parameterTypes.get(i).toString();
+      if (method.isVarArgs() && i == parameterTypes.size() - 1) {
+        parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+      }
+      signature.append(parameterType).append(" arg").append(i);
+      args.append("arg").append(i);
+    }
+    signature.append(')');
+    List<? extends TypeMirror> thrownTypes = type.getThrownTypes();
+    for (int i = 0; i < thrownTypes.size(); i++) {
+      signature.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+    }
+
+    final String invocation = "mapperMethods.get(" + index + ").execute(sqlSession, "
+        + (parameterTypes.isEmpty() ? "null" : "new Object[] { " + args + " }") + ")";
+    out.println("  @Override");
+    out.println(signature.append(" {"));
+    if (returnType.getKind() == TypeKind.VOID) {
+      out.println("    " + invocation + ";");
+    } else if (returnType.getKind().isPrimitive()) {
+      TypeMirror boxed = processingEnv.getTypeUtils().boxedClass((PrimitiveType) returnType).asType();
+      out.println("    return (" + boxed + ") " + invocation + ";");
+    } else {
+      out.println("    return (" + returnType + ") " + invocation + ";");
+    }
+    out.println("  }");
+  }
+
+  private void note(TypeElement mapper, String reason) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+        "Skipped generating an implementation of " + mapper.getQualifiedName() + ": " + reason, mapper);
+  }
+
+}
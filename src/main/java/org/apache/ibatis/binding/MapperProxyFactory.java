@@ -15,11 +15,16 @@
  */
 package org.apache.ibatis.binding;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
 /**
@@ -27,11 +32,34 @@ import org.apache.ibatis.session.SqlSession;
  */
 public class MapperProxyFactory<T> {
 
+  /**
+   * Suffix of the implementation classes generated by {@link MapperImplementationProcessor}.
+   *
+   * @since 3.5.0
+   */
+  public static final String GENERATED_IMPLEMENTATION_SUFFIX = "$MapperImpl";
+
   private final Class<T> mapperInterface;
   private final Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<>();
+  private final Map<Method, MethodHandle> defaultMethodCache = new ConcurrentHashMap<>();
+  private final Constructor<? extends T> generatedConstructor;
+  private final Method[] generatedMethods;
+  private volatile GeneratedMapperMethods generatedMapperMethods;
 
   public MapperProxyFactory(Class<T> mapperInterface) {
     this.mapperInterface = mapperInterface;
+    Class<? extends T> generatedType = resolveGeneratedImplementation(mapperInterface);
+    if (generatedType == null) {
+      this.generatedConstructor = null;
+      this.generatedMethods = null;
+    } else {
+      try {
+        this.generatedConstructor = generatedType.getConstructor(SqlSession.class, GeneratedMapperMethods.class);
+        this.generatedMethods = (Method[]) generatedType.getField("METHODS").get(null);
+      } catch (ReflectiveOperationException e) {
+        throw new BindingException("Invalid generated mapper implementation " + generatedType.getName() + ". Cause: " + e, e);
+      }
+    }
   }
 
   public Class<T> getMapperInterface() {
@@ -42,14 +70,68 @@ public class MapperProxyFactory<T> {
     return methodCache;
   }
 
+  /**
+   * Discards the resolved mapper methods. Generated mappers created afterwards use new ones.
+   *
+   * @since 3.5.0
+   */
+  public void clearMethodCache() {
+    methodCache.clear();
+    generatedMapperMethods = null;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isGenerated() {
+    return generatedConstructor != null;
+  }
+
   @SuppressWarnings("unchecked")
   protected T newInstance(MapperProxy<T> mapperProxy) {
     return (T) Proxy.newProxyInstance(mapperInterface.getClassLoader(), new Class[] { mapperInterface }, mapperProxy);
   }
 
   public T newInstance(SqlSession sqlSession) {
-    final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache);
+    if (generatedConstructor != null) {
+      return newGeneratedInstance(sqlSession);
+    }
+    final MapperProxy<T> mapperProxy = new MapperProxy<>(sqlSession, mapperInterface, methodCache, defaultMethodCache);
     return newInstance(mapperProxy);
   }
 
+  protected T newGeneratedInstance(SqlSession sqlSession) {
+    try {
+      return generatedConstructor.newInstance(sqlSession, getGeneratedMapperMethods(sqlSession.getConfiguration()));
+    } catch (ReflectiveOperationException e) {
+      throw new BindingException("Error creating generated mapper " + generatedConstructor.getName() + ". Cause: " + e, e);
+    }
+  }
+
+  private GeneratedMapperMethods getGeneratedMapperMethods(Configuration configuration) {
+    GeneratedMapperMethods mapperMethods = generatedMapperMethods;
+    if (mapperMethods == null) {
+      // racing threads create equivalent tables, so there is no need to lock
+      mapperMethods = new GeneratedMapperMethods(mapperInterface, generatedMethods, configuration);
+      generatedMapperMethods = mapperMethods;
+    }
+    return mapperMethods;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Class<? extends T> resolveGeneratedImplementation(Class<T> mapperInterface) {
+    // only interfaces annotated with @Mapper are seen by the processor
+    if (!mapperInterface.isAnnotationPresent(Mapper.class)) {
+      return null;
+    }
+    final Class<?> type;
+    try {
+      type = Resources.classForName(mapperInterface.getName() + GENERATED_IMPLEMENTATION_SUFFIX);
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    // a class compiled against another copy of the interface (e.g. other class loader) can not be used
+    return mapperInterface.isAssignableFrom(type) ? (Class<? extends T>) type : null;
+  }
+
 }
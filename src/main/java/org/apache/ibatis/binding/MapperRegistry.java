@@ -17,14 +17,20 @@ package org.apache.ibatis.binding;
 
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * @author Clinton Begin
@@ -58,6 +64,10 @@ public class MapperRegistry {
   }
 
   public <T> void addMapper(Class<T> type) {
+    addMapper(type, null);
+  }
+
+  private <T> void addMapper(Class<T> type, MapperAnnotationBuilder preparedParser) {
     if (type.isInterface()) {
       if (hasMapper(type)) {
         throw new BindingException("Type " + type + " is already known to the MapperRegistry.");
@@ -68,7 +78,7 @@ public class MapperRegistry {
         // It's important that the type is added before the parser is run
         // otherwise the binding may automatically be attempted by the
         // mapper parser. If the type is already known, it won't try.
-        MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type);
+        MapperAnnotationBuilder parser = preparedParser != null ? preparedParser : new MapperAnnotationBuilder(config, type);
         parser.parse();
         loadCompleted = true;
       } finally {
@@ -79,6 +89,19 @@ public class MapperRegistry {
     }
   }
 
+  /**
+   * Discards the mapper methods resolved for the mapper, so that they are resolved again against the current
+   * statements.
+   *
+   * @since 3.5.0
+   */
+  public void clearMethodCache(Class<?> type) {
+    MapperProxyFactory<?> mapperProxyFactory = knownMappers.get(type);
+    if (mapperProxyFactory != null) {
+      mapperProxyFactory.clearMethodCache();
+    }
+  }
+
   /**
    * @since 3.2.2
    */
@@ -93,11 +116,51 @@ public class MapperRegistry {
     ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
     resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
     Set<Class<? extends Class<?>>> mapperSet = resolverUtil.getClasses();
+    if (config.isParallelMapperParsing()) {
+      addMappersInParallel(mapperSet);
+      return;
+    }
     for (Class<?> mapperClass : mapperSet) {
       addMapper(mapperClass);
     }
   }
 
+  /**
+   * Prepares the mappers on the common fork-join pool and then adds them one after another, in the order of their
+   * names, so that the configuration is only modified by the calling thread and the result does not depend on
+   * timing.
+   */
+  private void addMappersInParallel(Collection<? extends Class<?>> mapperClasses) {
+    List<Class<?>> mappers = new ArrayList<>();
+    for (Class<?> mapperClass : mapperClasses) {
+      if (mapperClass.isInterface()) {
+        mappers.add(mapperClass);
+      }
+    }
+    mappers.sort(Comparator.comparing(Class::getName));
+    List<CompletableFuture<MapperAnnotationBuilder>> parsers = new ArrayList<>(mappers.size());
+    for (Class<?> mapper : mappers) {
+      parsers.add(CompletableFuture.supplyAsync(() -> {
+        try (BuildProfiler.Measurement measurement = BuildProfiler.startInParallel(config.getBuildProfiler(),
+            BuildProfiler.Kind.MAPPER_CLASS, mapper.getName())) {
+          MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, mapper);
+          parser.prepare();
+          return parser;
+        }
+      }));
+    }
+    for (int i = 0; i < mappers.size(); i++) {
+      MapperAnnotationBuilder parser;
+      try {
+        parser = parsers.get(i).join();
+      } catch (CompletionException e) {
+        // built without preparation, which reports the failure
+        parser = null;
+      }
+      addMapper(mappers.get(i), parser);
+    }
+  }
+
   /**
    * @since 3.2.2
    */
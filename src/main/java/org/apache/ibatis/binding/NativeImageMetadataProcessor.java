@@ -0,0 +1,337 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.VFS;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Annotation processor that writes, at build time, the GraalVM native image metadata needed by the mapper interfaces
+ * annotated with {@link org.apache.ibatis.annotations.Mapper}:
+ * <ul>
+ * <li>{@code reflect-config.json} lists the mapper interfaces, their generated implementations, the types used by
+ * their methods and the properties of these types, the classes named in their annotations (providers, type handlers,
+ * caches...) and the classes MyBatis itself creates by reflection.</li>
+ * <li>{@code proxy-config.json} lists the mapper interfaces that have no generated implementation and the interfaces
+ * plugins intercept ({@link Executor}, {@link StatementHandler}, {@link ParameterHandler} and
+ * {@link ResultSetHandler}).</li>
+ * <li>{@code resource-config.json} lists the XML files of the mapper interfaces, the MyBatis DTDs and the class index
+ * written by {@link org.apache.ibatis.io.ClassIndexProcessor}.</li>
+ * </ul>
+ * Together with {@link MapperImplementationProcessor} and {@link org.apache.ibatis.io.ClassIndexProcessor} this lets a
+ * native image register and call its mappers without scanning the class path or generating proxies at run time.
+ * <p>
+ * The files are written to {@code META-INF/native-image/org.mybatis/mappers}, or to the directory given with the
+ * {@code mybatis.nativeImageDirectory} processor option, and cover the mappers of one compilation, so all the mappers
+ * of a module should be compiled together. Types that are only named in XML files (e.g. in a {@code resultType}) and
+ * the aliases, type handlers and plugins of the configuration file are not seen by the processor and still have to be listed
+ * by hand. Lazy loading creates proxies with Javassist or CGLIB at run time and is not supported in native images.
+ * <p>
+ * The processor is not registered as a service; enable it explicitly, e.g. with
+ * {@code -processor org.apache.ibatis.binding.NativeImageMetadataProcessor} or the {@code annotationProcessors}
+ * setting of the maven-compiler-plugin.
+ *
+ * @since 3.5.0
+ */
+@SupportedAnnotationTypes("org.apache.ibatis.annotations.Mapper")
+@SupportedOptions(NativeImageMetadataProcessor.DIRECTORY_OPTION)
+public class NativeImageMetadataProcessor extends AbstractProcessor {
+
+  public static final String DIRECTORY_OPTION = "mybatis.nativeImageDirectory";
+
+  private static final String DEFAULT_DIRECTORY = "META-INF/native-image/org.mybatis/mappers";
+
+  private static final List<String> RESOURCES = Arrays.asList(
+      "org/apache/ibatis/builder/xml/mybatis-3-config.dtd",
+      "org/apache/ibatis/builder/xml/mybatis-3-mapper.dtd",
+      "META-INF/mybatis/class.index");
+
+  // the implementations DefaultObjectFactory creates for collection interfaces
+  private static final List<Class<?>> COLLECTION_IMPLEMENTATIONS = Arrays.asList(
+      ArrayList.class, HashMap.class, TreeSet.class, HashSet.class);
+
+  // the objects the plugins of the configuration may wrap, each implementing one of them
+  private static final List<Class<?>> PLUGIN_INTERFACES = Arrays.asList(
+      Executor.class, StatementHandler.class, ParameterHandler.class, ResultSetHandler.class);
+
+  private final Set<String> mappers = new TreeSet<>();
+  private final Set<String> superInterfaces = new TreeSet<>();
+  private final Set<String> types = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.INTERFACE) {
+          addMapper((TypeElement) element);
+        }
+      }
+    }
+    if (roundEnv.processingOver() && !mappers.isEmpty()) {
+      writeMetadata();
+    }
+    return false;
+  }
+
+  private void addMapper(TypeElement mapper) {
+    if (!mappers.add(binaryName(mapper))) {
+      return;
+    }
+    addAnnotatedTypes(mapper);
+    addSuperInterfaces(mapper);
+    final DeclaredType mapperType = (DeclaredType) mapper.asType();
+    for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(mapper))) {
+      if (method.getModifiers().contains(Modifier.STATIC)
+          || method.getEnclosingElement().getKind() != ElementKind.INTERFACE) {
+        continue;
+      }
+      // resolves the type arguments of generic super interfaces
+      ExecutableType type = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(mapperType, method);
+      addType(type.getReturnType());
+      for (TypeMirror parameterType : type.getParameterTypes()) {
+        addType(parameterType);
+      }
+      addAnnotatedTypes(method);
+      for (VariableElement parameter : method.getParameters()) {
+        addAnnotatedTypes(parameter);
+      }
+    }
+  }
+
+  private void addSuperInterfaces(TypeElement type) {
+    for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type.asType())) {
+      Element element = processingEnv.getTypeUtils().asElement(supertype);
+      if (element != null && element.getKind() == ElementKind.INTERFACE && !isJdkType((TypeElement) element)
+          && superInterfaces.add(binaryName((TypeElement) element))) {
+        addSuperInterfaces((TypeElement) element);
+      }
+    }
+  }
+
+  private void addType(TypeMirror type) {
+    switch (type.getKind()) {
+      case ARRAY:
+        addType(((ArrayType) type).getComponentType());
+        break;
+      case DECLARED:
+        for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+          addType(typeArgument);
+        }
+        addType((TypeElement) ((DeclaredType) type).asElement());
+        break;
+      case WILDCARD:
+        WildcardType wildcard = (WildcardType) type;
+        if (wildcard.getExtendsBound() != null) {
+          addType(wildcard.getExtendsBound());
+        }
+        if (wildcard.getSuperBound() != null) {
+          addType(wildcard.getSuperBound());
+        }
+        break;
+      case TYPEVAR:
+        addType(((TypeVariable) type).getUpperBound());
+        break;
+      default:
+        // primitives, void and intersections of bounds need no metadata
+        break;
+    }
+  }
+
+  private void addType(TypeElement type) {
+    if (type.getKind() == ElementKind.ANNOTATION_TYPE || isJdkType(type) || !types.add(binaryName(type))) {
+      return;
+    }
+    for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type.asType())) {
+      addType(supertype);
+    }
+    // the Reflector reads the fields and the getters and setters of the type
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC)) {
+        addType(field.asType());
+      }
+    }
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+      if (method.getParameters().isEmpty()) {
+        addType(method.getReturnType());
+      } else if (method.getParameters().size() == 1 && method.getSimpleName().toString().startsWith("set")) {
+        addType(method.getParameters().get(0).asType());
+      }
+    }
+    addAnnotatedTypes(type);
+  }
+
+  private void addAnnotatedTypes(Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      addAnnotatedTypes(annotation);
+    }
+  }
+
+  private void addAnnotatedTypes(AnnotationMirror annotation) {
+    // defaults matter too, e.g. the cache implementation of @CacheNamespace
+    addAnnotatedTypes(processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).values());
+  }
+
+  private void addAnnotatedTypes(Collection<? extends AnnotationValue> values) {
+    for (AnnotationValue value : values) {
+      Object object = value.getValue();
+      if (object instanceof TypeMirror) {
+        addType((TypeMirror) object);
+      } else if (object instanceof AnnotationMirror) {
+        addAnnotatedTypes((AnnotationMirror) object);
+      } else if (object instanceof List) {
+        @SuppressWarnings("unchecked")
+        List<? extends AnnotationValue> list = (List<? extends AnnotationValue>) object;
+        addAnnotatedTypes(list);
+      }
+    }
+  }
+
+  private boolean isJdkType(TypeElement type) {
+    String name = type.getQualifiedName().toString();
+    return name.startsWith("java.") || name.startsWith("javax.");
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void writeMetadata() {
+    Set<String> builtInTypes = new TreeSet<>();
+    for (Class<?> type : new Configuration().getTypeAliasRegistry().getTypeAliases().values()) {
+      if (type.getName().startsWith("org.apache.ibatis.")) {
+        builtInTypes.add(type.getName());
+      }
+    }
+    for (Class<?> type : VFS.IMPLEMENTATIONS) {
+      builtInTypes.add(type.getName());
+    }
+    for (Class<?> type : COLLECTION_IMPLEMENTATIONS) {
+      builtInTypes.add(type.getName());
+    }
+    builtInTypes.removeAll(types);
+
+    List<String> reflection = new ArrayList<>();
+    List<String> proxies = new ArrayList<>();
+    List<String> resources = new ArrayList<>();
+    for (String mapper : mappers) {
+      reflection.add("{\"name\": " + quote(mapper) + ", \"allPublicMethods\": true}");
+      String implementation = mapper + MapperProxyFactory.GENERATED_IMPLEMENTATION_SUFFIX;
+      if (processingEnv.getElementUtils().getTypeElement(implementation) != null) {
+        reflection.add("{\"name\": " + quote(implementation) + ", \"allPublicConstructors\": true, \"allPublicFields\": true}");
+      } else {
+        proxies.add("{\"interfaces\": [" + quote(mapper) + "]}");
+      }
+      resources.add("{\"pattern\": " + quote("\\Q" + mapper.replace('.', '/') + ".xml\\E") + "}");
+    }
+    for (String superInterface : superInterfaces) {
+      if (!mappers.contains(superInterface)) {
+        reflection.add("{\"name\": " + quote(superInterface) + ", \"allPublicMethods\": true}");
+      }
+    }
+    for (Class<?> pluginInterface : PLUGIN_INTERFACES) {
+      // Plugin looks up the intercepted methods by reflection
+      reflection.add("{\"name\": " + quote(pluginInterface.getName()) + ", \"allPublicMethods\": true}");
+      proxies.add("{\"interfaces\": [" + quote(pluginInterface.getName()) + "]}");
+    }
+    for (String type : types) {
+      reflection.add("{\"name\": " + quote(type) + ", \"allDeclaredConstructors\": true, \"allPublicConstructors\": true,"
+          + " \"allDeclaredMethods\": true, \"allPublicMethods\": true, \"allDeclaredFields\": true, \"allPublicFields\": true}");
+    }
+    for (String type : builtInTypes) {
+      reflection.add("{\"name\": " + quote(type) + ", \"allDeclaredConstructors\": true, \"allPublicConstructors\": true,"
+          + " \"allDeclaredMethods\": true, \"allPublicMethods\": true}");
+    }
+    for (String resource : RESOURCES) {
+      resources.add("{\"pattern\": " + quote("\\Q" + resource + "\\E") + "}");
+    }
+
+    String directory = processingEnv.getOptions().get(DIRECTORY_OPTION);
+    if (directory == null || directory.isEmpty()) {
+      directory = DEFAULT_DIRECTORY;
+    }
+    write(directory + "/reflect-config.json", "[\n" + join(reflection, "  ") + "]\n");
+    write(directory + "/proxy-config.json", "[\n" + join(proxies, "  ") + "]\n");
+    write(directory + "/resource-config.json",
+        "{\n  \"resources\": {\n    \"includes\": [\n" + join(resources, "      ") + "    ]\n  }\n}\n");
+  }
+
+  private void write(String path, String content) {
+    try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path).openWriter()) {
+      writer.write(content);
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + path + ". Cause: " + e);
+    }
+  }
+
+  private static String join(List<String> entries, String indent) {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < entries.size(); i++) {
+      json.append(indent).append(entries.get(i)).append(i < entries.size() - 1 ? ",\n" : "\n");
+    }
+    return json.toString();
+  }
+
+  private static String quote(String value) {
+    return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+  }
+
+}
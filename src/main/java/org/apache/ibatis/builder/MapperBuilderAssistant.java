@@ -128,7 +128,14 @@ public class MapperBuilderAssistant extends BaseBuilder {
       boolean readWrite,
       boolean blocking,
       Properties props) {
-    Cache cache = new CacheBuilder(currentNamespace)
+    Cache cache = configuration.getReloadedCache(currentNamespace);
+    if (cache != null) {
+      // namespaces referring to the cache keep sharing it with the reloaded statements
+      configuration.addCache(cache);
+      currentCache = cache;
+      return cache;
+    }
+    cache = new CacheBuilder(currentNamespace)
         .implementation(valueOrDefault(typeClass, PerpetualCache.class))
         .addDecorator(valueOrDefault(evictionClass, LruCache.class))
         .clearInterval(flushInterval)
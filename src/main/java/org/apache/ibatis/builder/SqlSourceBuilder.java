@@ -46,22 +46,54 @@ public class SqlSourceBuilder extends BaseBuilder {
     return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
   }
 
+  /**
+   * Same as {@link #parse(String, Class, Map)}, reusing the mappings built for the same SQL and parameter type
+   * when the cache holds them.
+   *
+   * @since 3.5.0
+   */
+  public SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> additionalParameters, SqlSourceCache cache) {
+    MetaObject metaParameters = configuration.newMetaObject(additionalParameters);
+    StaticSqlSource sqlSource = cache.get(configuration, originalSql, parameterType, metaParameters);
+    if (sqlSource != null) {
+      return sqlSource;
+    }
+    ParameterMappingTokenHandler handler = new ParameterMappingTokenHandler(configuration, parameterType, metaParameters);
+    GenericTokenParser parser = new GenericTokenParser("#{", "}", handler);
+    String sql = parser.parse(originalSql);
+    cache.put(originalSql, parameterType, sql, handler.getParameterMappings(), handler.getAdditionalParameterTypes());
+    return new StaticSqlSource(configuration, sql, handler.getParameterMappings());
+  }
+
+  static Class<?> additionalParameterType(MetaObject metaParameters, String property) {
+    return metaParameters.hasGetter(property) ? metaParameters.getGetterType(property) : null;
+  }
+
   private static class ParameterMappingTokenHandler extends BaseBuilder implements TokenHandler {
 
     private List<ParameterMapping> parameterMappings = new ArrayList<>();
+    private List<Class<?>> additionalParameterTypes = new ArrayList<>();
     private Class<?> parameterType;
     private MetaObject metaParameters;
 
     public ParameterMappingTokenHandler(Configuration configuration, Class<?> parameterType, Map<String, Object> additionalParameters) {
+      this(configuration, parameterType, configuration.newMetaObject(additionalParameters));
+    }
+
+    public ParameterMappingTokenHandler(Configuration configuration, Class<?> parameterType, MetaObject metaParameters) {
       super(configuration);
       this.parameterType = parameterType;
-      this.metaParameters = configuration.newMetaObject(additionalParameters);
+      this.metaParameters = metaParameters;
     }
 
     public List<ParameterMapping> getParameterMappings() {
       return parameterMappings;
     }
 
+    public Class<?>[] getAdditionalParameterTypes() {
+      return additionalParameterTypes.toArray(new Class<?>[0]);
+    }
+
     @Override
     public String handleToken(String content) {
       parameterMappings.add(buildParameterMapping(content));
@@ -72,8 +104,10 @@ public class SqlSourceBuilder extends BaseBuilder {
       Map<String, String> propertiesMap = parseParameterMapping(content);
       String property = propertiesMap.get("property");
       Class<?> propertyType;
-      if (metaParameters.hasGetter(property)) { // issue #448 get type from additional params
-        propertyType = metaParameters.getGetterType(property);
+      Class<?> additionalParameterType = additionalParameterType(metaParameters, property);
+      additionalParameterTypes.add(additionalParameterType);
+      if (additionalParameterType != null) { // issue #448 get type from additional params
+        propertyType = additionalParameterType;
       } else if (typeHandlerRegistry.hasTypeHandler(parameterType)) {
         propertyType = parameterType;
       } else if (JdbcType.CURSOR.name().equals(propertiesMap.get("jdbcType"))) {
@@ -0,0 +1,176 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Bounded cache of the {@link StaticSqlSource}s {@link SqlSourceBuilder} builds from dynamic SQL, keyed by the
+ * generated SQL and the parameter type.
+ * <p>
+ * The java type of a parameter mapping may come from the class of an additional parameter value (issue #448), so
+ * an entry also records those classes and is only reused when the current values have the same ones.
+ * SQL longer than <code>maxSqlLength</code> is not cached, and the cache is cleared when it reaches
+ * <code>maxEntries</code>.
+ */
+public class SqlSourceCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+  public static final int DEFAULT_MAX_SQL_LENGTH = 8192;
+
+  private final int maxEntries;
+  private final int maxSqlLength;
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong clears = new AtomicLong();
+
+  public SqlSourceCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SQL_LENGTH);
+  }
+
+  public SqlSourceCache(int maxEntries, int maxSqlLength) {
+    this.maxEntries = maxEntries;
+    this.maxSqlLength = maxSqlLength;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public int getMaxSqlLength() {
+    return maxSqlLength;
+  }
+
+  public int getSize() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return how many times the cache was cleared because it was full
+   */
+  public long getClearCount() {
+    return clears.get();
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * @return a source sharing nothing mutable with the cached one, or <code>null</code>
+   */
+  StaticSqlSource get(Configuration configuration, String originalSql, Class<?> parameterType, MetaObject metaParameters) {
+    if (!isCacheable(originalSql)) {
+      return null;
+    }
+    Entry entry = entries.get(new Key(originalSql, parameterType));
+    if (entry != null && entry.matches(metaParameters)) {
+      hits.incrementAndGet();
+      return new StaticSqlSource(configuration, entry.sql, new ArrayList<>(entry.parameterMappings));
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  void put(String originalSql, Class<?> parameterType, String sql, List<ParameterMapping> parameterMappings,
+      Class<?>[] additionalParameterTypes) {
+    if (!isCacheable(originalSql)) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      entries.clear();
+      clears.incrementAndGet();
+    }
+    entries.put(new Key(originalSql, parameterType), new Entry(sql, parameterMappings, additionalParameterTypes));
+  }
+
+  private boolean isCacheable(String originalSql) {
+    return maxEntries > 0 && originalSql.length() <= maxSqlLength;
+  }
+
+  private static final class Key {
+    private final String sql;
+    private final Class<?> parameterType;
+    private final int hashCode;
+
+    Key(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+      this.hashCode = 31 * sql.hashCode() + parameterType.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return parameterType == other.parameterType && sql.equals(other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private static final class Entry {
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+    private final String[] properties;
+    private final Class<?>[] additionalParameterTypes;
+
+    Entry(String sql, List<ParameterMapping> parameterMappings, Class<?>[] additionalParameterTypes) {
+      this.sql = sql;
+      this.parameterMappings = new ArrayList<>(parameterMappings);
+      this.properties = new String[parameterMappings.size()];
+      for (int i = 0; i < properties.length; i++) {
+        properties[i] = parameterMappings.get(i).getProperty();
+      }
+      this.additionalParameterTypes = additionalParameterTypes;
+    }
+
+    boolean matches(MetaObject metaParameters) {
+      for (int i = 0; i < properties.length; i++) {
+        if (SqlSourceBuilder.additionalParameterType(metaParameters, properties[i]) != additionalParameterTypes[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
@@ -66,7 +66,9 @@ import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -82,8 +84,11 @@ import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.PropertyParser;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.TypeParameterResolver;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -103,6 +108,11 @@ public class MapperAnnotationBuilder {
   private final Configuration configuration;
   private final MapperBuilderAssistant assistant;
   private final Class<?> type;
+  private final String resource;
+
+  private boolean prepared;
+  private Method[] methods;
+  private XPathParser xmlMapperDocument;
 
   static {
     SQL_ANNOTATION_TYPES.add(Select.class);
@@ -121,29 +131,67 @@ public class MapperAnnotationBuilder {
     this.assistant = new MapperBuilderAssistant(configuration, resource);
     this.configuration = configuration;
     this.type = type;
+    this.resource = resource;
   }
 
-  public void parse() {
-    String resource = type.toString();
-    if (!configuration.isResourceLoaded(resource)) {
-      loadXmlResource();
-      configuration.addLoadedResource(resource);
-      assistant.setCurrentNamespace(type.getName());
-      parseCache();
-      parseCacheRef();
+  /**
+   * Does the work of {@link #parse()} that leaves the configuration untouched, so that mappers can be prepared
+   * concurrently: parses the XML mapper of the type, looks up its methods and their annotations, and creates the
+   * reflectors of their result types. Failures are left for {@link #parse()} to report.
+   *
+   * @since 3.5.0
+   */
+  public void prepare() {
+    try {
       Method[] methods = type.getMethods();
+      ReflectorFactory reflectorFactory = configuration.getReflectorFactory();
       for (Method method : methods) {
-        try {
-          // issue #237
-          if (!method.isBridge()) {
-            parseStatement(method);
+        if (!method.isBridge()) {
+          method.getAnnotations();
+          Class<?> returnType = getReturnType(method);
+          if (reflectorFactory.isClassCacheEnabled() && !returnType.isPrimitive()) {
+            reflectorFactory.findForClass(returnType);
+          }
+        }
+      }
+      InputStream inputStream = openXmlResource(type.getName().replace('.', '/') + ".xml");
+      this.xmlMapperDocument = inputStream == null ? null
+          : new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+      this.methods = methods;
+      this.prepared = true;
+    } catch (RuntimeException | LinkageError e) {
+      // parse() does the work again and reports the failure
+      this.xmlMapperDocument = null;
+    }
+  }
+
+  public void parse() {
+    if (prepared) {
+      // prepared mappers are built one after another, with their builders created beforehand
+      ErrorContext.instance().resource(this.resource);
+    }
+    String resource = type.toString();
+    try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(), BuildProfiler.Kind.MAPPER_CLASS, type.getName())) {
+      if (!configuration.isResourceLoaded(resource)) {
+        loadXmlResource();
+        configuration.addLoadedResource(resource);
+        assistant.setCurrentNamespace(type.getName());
+        parseCache();
+        parseCacheRef();
+        Method[] methods = prepared ? this.methods : type.getMethods();
+        for (Method method : methods) {
+          try {
+            // issue #237
+            if (!method.isBridge()) {
+              parseStatement(method);
+            }
+          } catch (IncompleteElementException e) {
+            configuration.addIncompleteMethod(new MethodResolver(this, method));
           }
-        } catch (IncompleteElementException e) {
-          configuration.addIncompleteMethod(new MethodResolver(this, method));
         }
       }
+      parsePendingMethods();
     }
-    parsePendingMethods();
   }
 
   private void parsePendingMethods() {
@@ -152,6 +200,7 @@ public class MapperAnnotationBuilder {
       Iterator<MethodResolver> iter = incompleteMethods.iterator();
       while (iter.hasNext()) {
         try {
+          BuildProfiler.incompleteElementRetried();
           iter.next().resolve();
           iter.remove();
         } catch (IncompleteElementException e) {
@@ -167,23 +216,37 @@ public class MapperAnnotationBuilder {
     // this flag is set at XMLMapperBuilder#bindMapperForNamespace
     if (!configuration.isResourceLoaded("namespace:" + type.getName())) {
       String xmlResource = type.getName().replace('.', '/') + ".xml";
-      // #1347
-      InputStream inputStream = type.getResourceAsStream("/" + xmlResource);
-      if (inputStream == null) {
-        // Search XML mapper that is not in the module but in the classpath. 
-        try {
-          inputStream = Resources.getResourceAsStream(type.getClassLoader(), xmlResource);
-        } catch (IOException e2) {
-          // ignore, resource is not required
+      XMLMapperBuilder xmlParser = null;
+      if (prepared) {
+        if (xmlMapperDocument != null) {
+          xmlParser = new XMLMapperBuilder(xmlMapperDocument, assistant.getConfiguration(), xmlResource, configuration.getSqlFragments(), type.getName());
+        }
+      } else {
+        InputStream inputStream = openXmlResource(xmlResource);
+        if (inputStream != null) {
+          xmlParser = new XMLMapperBuilder(inputStream, assistant.getConfiguration(), xmlResource, configuration.getSqlFragments(), type.getName());
         }
       }
-      if (inputStream != null) {
-        XMLMapperBuilder xmlParser = new XMLMapperBuilder(inputStream, assistant.getConfiguration(), xmlResource, configuration.getSqlFragments(), type.getName());
+      if (xmlParser != null) {
         xmlParser.parse();
       }
     }
   }
 
+  private InputStream openXmlResource(String xmlResource) {
+    // #1347
+    InputStream inputStream = type.getResourceAsStream("/" + xmlResource);
+    if (inputStream == null) {
+      // Search XML mapper that is not in the module but in the classpath. 
+      try {
+        inputStream = Resources.getResourceAsStream(type.getClassLoader(), xmlResource);
+      } catch (IOException e2) {
+        // ignore, resource is not required
+      }
+    }
+    return inputStream;
+  }
+
   private void parseCache() {
     CacheNamespace cacheDomain = type.getAnnotation(CacheNamespace.class);
     if (cacheDomain != null) {
@@ -297,6 +360,15 @@ public class MapperAnnotationBuilder {
   }
 
   void parseStatement(Method method) {
+    long startNanos = System.nanoTime();
+    try {
+      buildStatement(method);
+    } finally {
+      BuildProfiler.statementBuilt(startNanos);
+    }
+  }
+
+  private void buildStatement(Method method) {
     Class<?> parameterTypeClass = getParameterType(method);
     LanguageDriver languageDriver = getLanguageDriver(method);
     SqlSource sqlSource = getSqlSourceFromAnnotations(method, parameterTypeClass, languageDriver);
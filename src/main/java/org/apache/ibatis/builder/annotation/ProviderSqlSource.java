@@ -19,6 +19,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.SqlSourceBuilder;
@@ -42,6 +44,9 @@ public class ProviderSqlSource implements SqlSource {
   private Class<?>[] providerMethodParameterTypes;
   private ProviderContext providerContext;
   private Integer providerContextIndex;
+  private boolean deterministic;
+  private boolean cacheable;
+  private final ConcurrentMap<Class<?>, SqlSource> deterministicSqlSources = new ConcurrentHashMap<>();
 
   /**
    * @deprecated Please use the {@link #ProviderSqlSource(Configuration, Object, Class, Method)} instead of this.
@@ -61,6 +66,8 @@ public class ProviderSqlSource implements SqlSource {
       this.sqlSourceParser = new SqlSourceBuilder(configuration);
       this.providerType = (Class<?>) provider.getClass().getMethod("type").invoke(provider);
       providerMethodName = (String) provider.getClass().getMethod("method").invoke(provider);
+      this.deterministic = isEnabled(provider, "deterministic");
+      this.cacheable = isEnabled(provider, "cacheable");
 
       for (Method m : this.providerType.getMethods()) {
         if (providerMethodName.equals(m.getName()) && CharSequence.class.isAssignableFrom(m.getReturnType())) {
@@ -97,9 +104,29 @@ public class ProviderSqlSource implements SqlSource {
     }
   }
 
+  private static boolean isEnabled(Object provider, String attribute) throws Exception {
+    Method method;
+    try {
+      method = provider.getClass().getMethod(attribute);
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+    return Boolean.TRUE.equals(method.invoke(provider));
+  }
+
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    SqlSource sqlSource = createSqlSource(parameterObject);
+    SqlSource sqlSource;
+    if (deterministic) {
+      Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+      sqlSource = deterministicSqlSources.get(parameterType);
+      if (sqlSource == null) {
+        sqlSource = createSqlSource(parameterObject);
+        deterministicSqlSources.putIfAbsent(parameterType, sqlSource);
+      }
+    } else {
+      sqlSource = createSqlSource(parameterObject);
+    }
     return sqlSource.getBoundSql(parameterObject);
   }
 
@@ -126,7 +153,11 @@ public class ProviderSqlSource implements SqlSource {
                 + " using a specifying parameterObject. In this case, please specify a 'java.util.Map' object.");
       }
       Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-      return sqlSourceParser.parse(replacePlaceholder(sql), parameterType, new HashMap<String, Object>());
+      if (!cacheable) {
+        // SQL inlining values would fill the shared cache with entries used only once
+        return sqlSourceParser.parse(replacePlaceholder(sql), parameterType, new HashMap<String, Object>());
+      }
+      return sqlSourceParser.parse(replacePlaceholder(sql), parameterType, new HashMap<String, Object>(), configuration.getSqlSourceCache());
     } catch (BuilderException e) {
       throw e;
     } catch (Exception e) {
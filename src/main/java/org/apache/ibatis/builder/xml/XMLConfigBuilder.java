@@ -15,13 +15,21 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.SqlSourceCache;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
@@ -38,8 +46,10 @@ import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -104,19 +114,27 @@ public class XMLConfigBuilder extends BaseBuilder {
       //issue #117 read properties first
       propertiesElement(root.evalNode("properties"));
       Properties settings = settingsAsProperties(root.evalNode("settings"));
-      loadCustomVfs(settings);
-      loadCustomLogImpl(settings);
-      typeAliasesElement(root.evalNode("typeAliases"));
-      pluginElement(root.evalNode("plugins"));
-      objectFactoryElement(root.evalNode("objectFactory"));
-      objectWrapperFactoryElement(root.evalNode("objectWrapperFactory"));
-      reflectorFactoryElement(root.evalNode("reflectorFactory"));
-      settingsElement(settings);
-      // read it after objectFactory and objectWrapperFactory issue #631
-      environmentsElement(root.evalNode("environments"));
-      databaseIdProviderElement(root.evalNode("databaseIdProvider"));
-      typeHandlerElement(root.evalNode("typeHandlers"));
-      mapperElement(root.evalNode("mappers"));
+      // applied before the other settings, so that the whole build is measured
+      configuration.setStartupProfilingEnabled(booleanValueOf(settings.getProperty("startupProfilingEnabled"), false));
+      try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+          BuildProfiler.Kind.CONFIGURATION, "SQL Mapper Configuration")) {
+        loadCustomVfs(settings);
+        loadCustomLogImpl(settings);
+        typeAliasesElement(root.evalNode("typeAliases"));
+        pluginElement(root.evalNode("plugins"));
+        objectFactoryElement(root.evalNode("objectFactory"));
+        objectWrapperFactoryElement(root.evalNode("objectWrapperFactory"));
+        reflectorFactoryElement(root.evalNode("reflectorFactory"));
+        settingsElement(settings);
+        // read it after objectFactory and objectWrapperFactory issue #631
+        environmentsElement(root.evalNode("environments"));
+        databaseIdProviderElement(root.evalNode("databaseIdProvider"));
+        typeHandlerElement(root.evalNode("typeHandlers"));
+        mapperElement(root.evalNode("mappers"));
+      }
+      if (configuration.getBuildProfiler() != null) {
+        configuration.getBuildProfiler().logReport();
+      }
     } catch (Exception e) {
       throw new BuilderException("Error parsing SQL Mapper Configuration. Cause: " + e, e);
     }
@@ -161,7 +179,10 @@ public class XMLConfigBuilder extends BaseBuilder {
       for (XNode child : parent.getChildren()) {
         if ("package".equals(child.getName())) {
           String typeAliasPackage = child.getStringAttribute("name");
-          configuration.getTypeAliasRegistry().registerAliases(typeAliasPackage);
+          try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+              BuildProfiler.Kind.TYPE_ALIAS_PACKAGE, typeAliasPackage)) {
+            configuration.getTypeAliasRegistry().registerAliases(typeAliasPackage);
+          }
         } else {
           String alias = child.getStringAttribute("alias");
           String type = child.getStringAttribute("type");
@@ -245,6 +266,10 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setAutoMappingUnknownColumnBehavior(AutoMappingUnknownColumnBehavior.valueOf(props.getProperty("autoMappingUnknownColumnBehavior", "NONE")));
     configuration.setCacheEnabled(booleanValueOf(props.getProperty("cacheEnabled"), true));
     configuration.setProxyFactory((ProxyFactory) createInstance(props.getProperty("proxyFactory")));
+    configuration.setExpressionCompiler((ExpressionCompiler) createInstance(props.getProperty("expressionCompiler")));
+    configuration.setSqlSourceCacheSize(integerValueOf(props.getProperty("sqlSourceCacheSize"), SqlSourceCache.DEFAULT_MAX_ENTRIES));
+    configuration.setParallelMapperParsing(booleanValueOf(props.getProperty("parallelMapperParsing"), false));
+    configuration.setLazyStatementBuilding(booleanValueOf(props.getProperty("lazyStatementBuilding"), false));
     configuration.setLazyLoadingEnabled(booleanValueOf(props.getProperty("lazyLoadingEnabled"), false));
     configuration.setAggressiveLazyLoading(booleanValueOf(props.getProperty("aggressiveLazyLoading"), false));
     configuration.setMultipleResultSetsEnabled(booleanValueOf(props.getProperty("multipleResultSetsEnabled"), true));
@@ -334,7 +359,10 @@ public class XMLConfigBuilder extends BaseBuilder {
       for (XNode child : parent.getChildren()) {
         if ("package".equals(child.getName())) {
           String typeHandlerPackage = child.getStringAttribute("name");
-          typeHandlerRegistry.register(typeHandlerPackage);
+          try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+              BuildProfiler.Kind.TYPE_HANDLER_PACKAGE, typeHandlerPackage)) {
+            typeHandlerRegistry.register(typeHandlerPackage);
+          }
         } else {
           String javaTypeName = child.getStringAttribute("javaType");
           String jdbcTypeName = child.getStringAttribute("jdbcType");
@@ -358,35 +386,123 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
-        if ("package".equals(child.getName())) {
-          String mapperPackage = child.getStringAttribute("name");
+      List<XNode> children = parent.getChildren();
+      List<Future<XPathParser>> mapperDocuments = configuration.isParallelMapperParsing() ? parseMapperDocuments(children) : null;
+      try {
+        mapperElement(children, mapperDocuments);
+      } catch (Exception | Error e) {
+        if (mapperDocuments != null) {
+          // the documents of the following mappers are not needed any more
+          for (Future<XPathParser> mapperDocument : mapperDocuments) {
+            if (mapperDocument != null) {
+              mapperDocument.cancel(false);
+            }
+          }
+        }
+        throw e;
+      }
+    }
+  }
+
+  private void mapperElement(List<XNode> children, List<Future<XPathParser>> mapperDocuments) throws Exception {
+    for (int i = 0; i < children.size(); i++) {
+      XNode child = children.get(i);
+      if ("package".equals(child.getName())) {
+        String mapperPackage = child.getStringAttribute("name");
+        try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+            BuildProfiler.Kind.MAPPER_PACKAGE, mapperPackage)) {
           configuration.addMappers(mapperPackage);
-        } else {
-          String resource = child.getStringAttribute("resource");
-          String url = child.getStringAttribute("url");
-          String mapperClass = child.getStringAttribute("class");
-          if (resource != null && url == null && mapperClass == null) {
-            ErrorContext.instance().resource(resource);
-            InputStream inputStream = Resources.getResourceAsStream(resource);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+        }
+      } else {
+        String resource = child.getStringAttribute("resource");
+        String url = child.getStringAttribute("url");
+        String mapperClass = child.getStringAttribute("class");
+        if (resource != null && url == null && mapperClass == null) {
+          ErrorContext.instance().resource(resource);
+          // unless it was parsed in parallel, the document is parsed by XMLMapperBuilder's constructor, so it is
+          // measured as part of the mapper
+          try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+              BuildProfiler.Kind.MAPPER_XML, resource)) {
+            XMLMapperBuilder mapperParser;
+            if (mapperDocuments != null) {
+              mapperParser = new XMLMapperBuilder(getMapperDocument(mapperDocuments.get(i)), configuration, resource, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getResourceAsStream(resource);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+            }
             mapperParser.parse();
-          } else if (resource == null && url != null && mapperClass == null) {
-            ErrorContext.instance().resource(url);
-            InputStream inputStream = Resources.getUrlAsStream(url);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+          }
+        } else if (resource == null && url != null && mapperClass == null) {
+          ErrorContext.instance().resource(url);
+          try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(),
+              BuildProfiler.Kind.MAPPER_XML, url)) {
+            XMLMapperBuilder mapperParser;
+            if (mapperDocuments != null) {
+              mapperParser = new XMLMapperBuilder(getMapperDocument(mapperDocuments.get(i)), configuration, url, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getUrlAsStream(url);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+            }
             mapperParser.parse();
-          } else if (resource == null && url == null && mapperClass != null) {
-            Class<?> mapperInterface = Resources.classForName(mapperClass);
-            configuration.addMapper(mapperInterface);
-          } else {
-            throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
           }
+        } else if (resource == null && url == null && mapperClass != null) {
+          Class<?> mapperInterface = Resources.classForName(mapperClass);
+          configuration.addMapper(mapperInterface);
+        } else {
+          throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
         }
       }
     }
   }
 
+  /**
+   * Parses the XML mapper documents on the common fork-join pool. Each task opens its file with the context class
+   * loader of the calling thread, which is also used to look up the XML parser, so only the files being parsed are
+   * open and the same parser is used as without this setting. Any failure is only thrown when its mapper is reached.
+   * The mappers are then built in declaration order.
+   */
+  private List<Future<XPathParser>> parseMapperDocuments(List<XNode> children) {
+    List<Future<XPathParser>> mapperDocuments = new ArrayList<>(children.size());
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    for (XNode child : children) {
+      String resource = child.getStringAttribute("resource");
+      String url = child.getStringAttribute("url");
+      CompletableFuture<XPathParser> mapperDocument = null;
+      if (!"package".equals(child.getName()) && child.getStringAttribute("class") == null && (resource == null) != (url == null)) {
+        mapperDocument = CompletableFuture.supplyAsync(() -> parseMapperDocument(resource, url, classLoader));
+      }
+      mapperDocuments.add(mapperDocument);
+    }
+    return mapperDocuments;
+  }
+
+  private XPathParser parseMapperDocument(String resource, String url, ClassLoader classLoader) {
+    Thread thread = Thread.currentThread();
+    ClassLoader workerClassLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(classLoader);
+    try (BuildProfiler.Measurement measurement = BuildProfiler.startInParallel(configuration.getBuildProfiler(),
+        BuildProfiler.Kind.MAPPER_XML, resource != null ? resource : url);
+        InputStream inputStream = resource != null ? Resources.getResourceAsStream(resource) : Resources.getUrlAsStream(url)) {
+      return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    } finally {
+      thread.setContextClassLoader(workerClassLoader);
+    }
+  }
+
+  private XPathParser getMapperDocument(Future<XPathParser> mapperDocument) throws Exception {
+    try {
+      return mapperDocument.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw (Error) cause;
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
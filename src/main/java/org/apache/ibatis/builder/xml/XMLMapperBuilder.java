@@ -44,6 +44,7 @@ import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
@@ -81,7 +82,15 @@ public class XMLMapperBuilder extends BaseBuilder {
         configuration, resource, sqlFragments);
   }
 
-  private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
+  /**
+   * @since 3.5.0
+   */
+  public XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments, String namespace) {
+    this(parser, configuration, resource, sqlFragments);
+    this.builderAssistant.setCurrentNamespace(namespace);
+  }
+
+  public XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
     super(configuration);
     this.builderAssistant = new MapperBuilderAssistant(configuration, resource);
     this.parser = parser;
@@ -90,15 +99,37 @@ public class XMLMapperBuilder extends BaseBuilder {
   }
 
   public void parse() {
-    if (!configuration.isResourceLoaded(resource)) {
-      configurationElement(parser.evalNode("/mapper"));
-      configuration.addLoadedResource(resource);
-      bindMapperForNamespace();
+    try (BuildProfiler.Measurement measurement = BuildProfiler.start(configuration.getBuildProfiler(), BuildProfiler.Kind.MAPPER_XML, resource)) {
+      if (!configuration.isResourceLoaded(resource)) {
+        configurationElement(parser.evalNode("/mapper"));
+        configuration.addLoadedResource(resource);
+        bindMapperForNamespace();
+      }
+
+      parsePendingResultMaps();
+      parsePendingCacheRefs();
+      parsePendingStatements();
     }
+  }
 
-    parsePendingResultMaps();
-    parsePendingCacheRefs();
-    parsePendingStatements();
+  /**
+   * Parses the mapper again, replacing the statements, result maps, parameter maps, SQL fragments and cache loaded
+   * from its resource before. Nothing is replaced when the new mapper is invalid.
+   *
+   * @see Configuration#replaceMapperResource(String, String, Runnable)
+   * @since 3.5.0
+   */
+  public void reload() {
+    if (!configuration.isResourceLoaded(resource)) {
+      parse();
+      return;
+    }
+    XNode mapper = parser.evalNode("/mapper");
+    String namespace = mapper.getStringAttribute("namespace");
+    if (namespace == null || namespace.equals("")) {
+      throw new BuilderException("Mapper's namespace cannot be empty");
+    }
+    configuration.replaceMapperResource(resource, namespace, () -> configurationElement(mapper));
   }
 
   public XNode getSqlFragment(String refid) {
@@ -133,6 +164,10 @@ public class XMLMapperBuilder extends BaseBuilder {
   private void buildStatementFromContext(List<XNode> list, String requiredDatabaseId) {
     for (XNode context : list) {
       final XMLStatementBuilder statementParser = new XMLStatementBuilder(configuration, builderAssistant, context, requiredDatabaseId);
+      if (configuration.isLazyStatementBuilding()) {
+        statementParser.registerStatementNode();
+        continue;
+      }
       try {
         statementParser.parseStatementNode();
       } catch (IncompleteElementException e) {
@@ -147,6 +182,7 @@ public class XMLMapperBuilder extends BaseBuilder {
       Iterator<ResultMapResolver> iter = incompleteResultMaps.iterator();
       while (iter.hasNext()) {
         try {
+          BuildProfiler.incompleteElementRetried();
           iter.next().resolve();
           iter.remove();
         } catch (IncompleteElementException e) {
@@ -162,6 +198,7 @@ public class XMLMapperBuilder extends BaseBuilder {
       Iterator<CacheRefResolver> iter = incompleteCacheRefs.iterator();
       while (iter.hasNext()) {
         try {
+          BuildProfiler.incompleteElementRetried();
           iter.next().resolveCacheRef();
           iter.remove();
         } catch (IncompleteElementException e) {
@@ -177,6 +214,7 @@ public class XMLMapperBuilder extends BaseBuilder {
       Iterator<XMLStatementBuilder> iter = incompleteStatements.iterator();
       while (iter.hasNext()) {
         try {
+          BuildProfiler.incompleteElementRetried();
           iter.next().parseStatementNode();
           iter.remove();
         } catch (IncompleteElementException e) {
@@ -15,9 +15,13 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.io.Resources;
 import org.xml.sax.EntityResolver;
@@ -40,6 +44,8 @@ public class XMLMapperEntityResolver implements EntityResolver {
   private static final String MYBATIS_CONFIG_DTD = "org/apache/ibatis/builder/xml/mybatis-3-config.dtd";
   private static final String MYBATIS_MAPPER_DTD = "org/apache/ibatis/builder/xml/mybatis-3-mapper.dtd";
 
+  private static final ConcurrentMap<String, byte[]> DTDS = new ConcurrentHashMap<>();
+
   /**
    * Converts a public DTD into a local one
    * 
@@ -70,7 +76,7 @@ public class XMLMapperEntityResolver implements EntityResolver {
     InputSource source = null;
     if (path != null) {
       try {
-        InputStream in = Resources.getResourceAsStream(path);
+        InputStream in = new ByteArrayInputStream(getDtd(path));
         source = new InputSource(in);
         source.setPublicId(publicId);
         source.setSystemId(systemId);
@@ -81,4 +87,24 @@ public class XMLMapperEntityResolver implements EntityResolver {
     return source;
   }
 
+  /**
+   * The DTDs are read from the class path once, instead of once per mapper file.
+   */
+  private static byte[] getDtd(String path) throws IOException {
+    byte[] dtd = DTDS.get(path);
+    if (dtd == null) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (InputStream in = Resources.getResourceAsStream(path)) {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+      }
+      dtd = out.toByteArray();
+      DTDS.putIfAbsent(path, dtd);
+    }
+    return dtd;
+  }
+
 }
@@ -0,0 +1,149 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Reloads mapper XML files when they change on the file system, using {@link XMLMapperBuilder#reload()}.
+ * <p>
+ * Changes are picked up by a daemon thread until the watcher is closed. A mapper that fails to reload is logged and
+ * keeps its previous statements.
+ *
+ * @since 3.5.0
+ */
+public class XMLMapperWatcher implements Closeable {
+
+  private static final Log log = LogFactory.getLog(XMLMapperWatcher.class);
+
+  /** Changes arriving within this delay are handled together, as editors often write a file in several steps. */
+  private static final long SETTLE_MILLIS = 100;
+
+  private final Configuration configuration;
+  private final WatchService watchService;
+  private final Map<Path, String> resources = new ConcurrentHashMap<>();
+  private final Thread thread;
+
+  public XMLMapperWatcher(Configuration configuration) throws IOException {
+    this.configuration = configuration;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.thread = new Thread(this::run, "mybatis-mapper-watcher");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Reloads the mapper loaded from <code>resource</code> whenever <code>file</code> changes.
+   */
+  public void watch(Path file, String resource) throws IOException {
+    Path path = file.toAbsolutePath().normalize();
+    path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    resources.put(path, resource);
+  }
+
+  /**
+   * Watches the loaded mapper XML resources that are files on the default file system, e.g. class path resources
+   * in a directory.
+   */
+  public void watchLoadedResources() throws IOException {
+    for (String resource : configuration.getLoadedResources()) {
+      if (!resource.endsWith(".xml")) {
+        continue;
+      }
+      Path file = toFile(resource);
+      if (file != null) {
+        watch(file, resource);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private Path toFile(String resource) {
+    try {
+      URL url = resource.contains(":") ? new URL(resource) : Resources.getResourceURL(resource);
+      return "file".equals(url.getProtocol()) ? Paths.get(url.toURI()) : null;
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        Set<Path> changed = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+          Path directory = (Path) key.watchable();
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+              Path file = directory.resolve((Path) event.context());
+              if (resources.containsKey(file)) {
+                changed.add(file);
+              }
+            }
+          }
+          key.reset();
+          key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        for (Path file : changed) {
+          reload(file, resources.get(file));
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      // closed
+    }
+  }
+
+  private void reload(Path file, String resource) {
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).reload();
+      if (log.isDebugEnabled()) {
+        log.debug("Reloaded mapper " + resource);
+      }
+    } catch (Exception e) {
+      log.warn("Could not reload mapper " + resource + ". Cause: " + e);
+    }
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -53,7 +54,36 @@ public class XMLStatementBuilder extends BaseBuilder {
     this.requiredDatabaseId = databaseId;
   }
 
+  /**
+   * Registers the statement to be built the first time it is asked for, when lazy statement building is enabled.
+   *
+   * @since 3.5.0
+   */
+  public void registerStatementNode() {
+    String id = context.getStringAttribute("id");
+    String databaseId = context.getStringAttribute("databaseId");
+    if (databaseIdMatchesCurrent(id, databaseId, this.requiredDatabaseId)) {
+      configuration.addLazyStatement(getStatementId(), this);
+    }
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public String getStatementId() {
+    return builderAssistant.applyCurrentNamespace(context.getStringAttribute("id"), false);
+  }
+
   public void parseStatementNode() {
+    long startNanos = System.nanoTime();
+    try {
+      buildStatementNode();
+    } finally {
+      BuildProfiler.statementBuilt(startNanos);
+    }
+  }
+
+  private void buildStatementNode() {
     String id = context.getStringAttribute("id");
     String databaseId = context.getStringAttribute("databaseId");
 
@@ -181,6 +211,11 @@ public class XMLStatementBuilder extends BaseBuilder {
       }
       // skip this statement if there is a previous one with a not null databaseId
       id = builderAssistant.applyCurrentNamespace(id, false);
+      XMLStatementBuilder lazyStatement = this.configuration.getLazyStatement(id);
+      if (lazyStatement != null) {
+        // a statement registered for another database, or this one when it is built
+        return lazyStatement.requiredDatabaseId == null;
+      }
       if (this.configuration.hasStatement(id, false)) {
         MappedStatement previous = this.configuration.getMappedStatement(id, false); // issue #2
         if (previous.getDatabaseId() != null) {
@@ -22,7 +22,9 @@ import java.sql.Statement;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
@@ -137,6 +139,10 @@ public abstract class BaseStatementHandler implements StatementHandler {
 
   protected void generateKeys(Object parameter) {
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
+    if (keyGenerator.getClass() == NoKeyGenerator.class || keyGenerator.getClass() == Jdbc3KeyGenerator.class) {
+      // nothing to do before the statement runs, so avoid swapping the error context on every execution
+      return;
+    }
     ErrorContext.instance().store();
     keyGenerator.processBefore(executor, mappedStatement, null, parameter);
     ErrorContext.instance().recall();
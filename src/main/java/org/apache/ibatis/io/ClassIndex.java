@@ -0,0 +1,196 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * The class index files visible to a class loader, as written by {@link ClassIndexProcessor}.
+ *
+ * <p>Each line of an index file names one class by its binary name. The name may be followed by
+ * {@code =} and a comma separated list of the binary names of all its supertypes, and of the
+ * annotations present on it prefixed with {@code @}. Lines starting with {@code #} are ignored.</p>
+ *
+ * <pre>
+ * com.example.UserMapper=com.example.BaseMapper,java.lang.Object,&#64;com.example.Mapper
+ * </pre>
+ */
+final class ClassIndex {
+
+  static final String RESOURCE = "META-INF/mybatis/class.index";
+
+  private static final Log log = LogFactory.getLog(ClassIndex.class);
+
+  private static final ClassIndex EMPTY = new ClassIndex(new TreeMap<>());
+
+  private static final Map<ClassLoader, ClassIndex> indexes = new WeakHashMap<>();
+
+  private final TreeMap<String, Entry> entries;
+
+  private ClassIndex(TreeMap<String, Entry> entries) {
+    this.entries = entries;
+  }
+
+  static ClassIndex forClassLoader(ClassLoader classLoader) {
+    if (classLoader == null) {
+      return EMPTY;
+    }
+    synchronized (indexes) {
+      ClassIndex index = indexes.get(classLoader);
+      if (index == null) {
+        index = load(classLoader);
+        indexes.put(classLoader, index);
+      }
+      return index;
+    }
+  }
+
+  /**
+   * Returns the indexed classes in the package and its sub-packages, or an empty list when the
+   * package is not indexed.
+   */
+  List<Entry> find(String packageName) {
+    if (packageName == null || entries.isEmpty()) {
+      return Collections.emptyList();
+    }
+    if (packageName.isEmpty()) {
+      return new ArrayList<>(entries.values());
+    }
+    // '/' is the character right after '.', so this range holds exactly the names under "packageName."
+    return new ArrayList<>(entries.subMap(packageName + ".", packageName + "/").values());
+  }
+
+  private static ClassIndex load(ClassLoader classLoader) {
+    TreeMap<String, Entry> entries = new TreeMap<>();
+    try {
+      Enumeration<URL> urls = classLoader.getResources(RESOURCE);
+      while (urls.hasMoreElements()) {
+        URL url = urls.nextElement();
+        try (InputStream in = url.openStream()) {
+          for (Entry entry : read(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            entries.putIfAbsent(entry.getName(), entry);
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not read class index " + RESOURCE + ", falling back to scanning. Cause: " + e);
+      return EMPTY;
+    }
+    return entries.isEmpty() ? EMPTY : new ClassIndex(entries);
+  }
+
+  static List<Entry> read(Reader reader) throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    BufferedReader lines = new BufferedReader(reader);
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int separator = line.indexOf('=');
+      if (separator < 0) {
+        entries.add(new Entry(line, null, null));
+        continue;
+      }
+      Set<String> supertypes = new HashSet<>();
+      Set<String> annotations = new HashSet<>();
+      for (String name : line.substring(separator + 1).split(",")) {
+        name = name.trim();
+        if (name.startsWith("@")) {
+          annotations.add(name.substring(1));
+        } else if (!name.isEmpty()) {
+          supertypes.add(name);
+        }
+      }
+      entries.add(new Entry(line.substring(0, separator).trim(), supertypes, annotations));
+    }
+    return entries;
+  }
+
+  static final class Entry {
+    private final String name;
+    private final Set<String> supertypes;
+    private final Set<String> annotations;
+
+    Entry(String name, Set<String> supertypes, Set<String> annotations) {
+      this.name = name;
+      this.supertypes = supertypes;
+      this.annotations = annotations;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Set<String> getSupertypes() {
+      return supertypes;
+    }
+
+    Set<String> getAnnotations() {
+      return annotations;
+    }
+
+    /**
+     * Returns false only when the index proves that the class is not assignable to the type.
+     */
+    boolean mayBeA(String typeName) {
+      return supertypes == null || name.equals(typeName) || supertypes.contains(typeName);
+    }
+
+    /**
+     * Returns false only when the index proves that the annotation is not present on the class.
+     */
+    boolean mayBeAnnotatedWith(String annotationName) {
+      return annotations == null || annotations.contains(annotationName);
+    }
+
+    String toLine() {
+      if (supertypes == null) {
+        return name;
+      }
+      StringBuilder line = new StringBuilder(name).append('=');
+      String separator = "";
+      for (String supertype : new TreeSet<>(supertypes)) {
+        line.append(separator).append(supertype);
+        separator = ",";
+      }
+      for (String annotation : new TreeSet<>(annotations)) {
+        line.append(separator).append('@').append(annotation);
+        separator = ",";
+      }
+      return line.toString();
+    }
+  }
+}
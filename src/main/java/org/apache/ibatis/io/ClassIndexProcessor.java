@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that writes the index of the compiled classes read by {@link ResolverUtil}.
+ *
+ * <p>With the index on the class path, package based registration of type aliases, type handlers
+ * and mappers lists the classes of a package from the index instead of scanning directories and
+ * JAR files, and only loads the classes that may match. Packages without indexed classes are
+ * still scanned. The processor is not registered as a service; enable it explicitly, e.g. with
+ * {@code -processor org.apache.ibatis.io.ClassIndexProcessor} or the {@code annotationProcessors}
+ * setting of the maven-compiler-plugin.</p>
+ *
+ * <p>A package is looked up in the index as a whole, so every JAR or directory contributing
+ * classes to an indexed package should be compiled with the processor.</p>
+ *
+ * @since 3.5.0
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+
+  private final Map<String, ClassIndex.Entry> entries = new TreeMap<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+      addType(type);
+    }
+    if (roundEnv.processingOver() && !entries.isEmpty()) {
+      writeIndex();
+    }
+    return false;
+  }
+
+  private void addType(TypeElement type) {
+    Set<String> supertypes = new HashSet<>();
+    addSupertypes(type.asType(), supertypes);
+    Set<String> annotationNames = new HashSet<>();
+    for (AnnotationMirror annotation : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+      Element annotationType = annotation.getAnnotationType().asElement();
+      if (annotationType instanceof TypeElement) {
+        annotationNames.add(binaryName((TypeElement) annotationType));
+      }
+    }
+    String name = binaryName(type);
+    entries.put(name, new ClassIndex.Entry(name, supertypes, annotationNames));
+    for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+      addType(member);
+    }
+  }
+
+  private void addSupertypes(TypeMirror type, Set<String> names) {
+    for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+      Element element = processingEnv.getTypeUtils().asElement(supertype);
+      if (element instanceof TypeElement && names.add(binaryName((TypeElement) element))) {
+        addSupertypes(supertype, names);
+      }
+    }
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void writeIndex() {
+    // keeps the classes indexed by an earlier, incremental compilation of the same output
+    try {
+      FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.RESOURCE);
+      try (Reader reader = existing.openReader(true)) {
+        for (ClassIndex.Entry entry : ClassIndex.read(reader)) {
+          entries.putIfAbsent(entry.getName(), entry);
+        }
+      }
+    } catch (IOException e) {
+      // no previous index
+    }
+    try {
+      FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ClassIndex.RESOURCE);
+      try (Writer writer = index.openWriter()) {
+        for (ClassIndex.Entry entry : entries.values()) {
+          writer.write(entry.toLine());
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + ClassIndex.RESOURCE + ". Cause: " + e);
+    }
+  }
+}
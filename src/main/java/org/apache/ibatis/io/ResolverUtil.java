@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.session.BuildProfiler;
 
 /**
  * <p>ResolverUtil is used to locate classes that are available in the/a class path and meet
@@ -44,6 +45,10 @@ import org.apache.ibatis.logging.LogFactory;
  * use cases of scanning multiple packages for extensions of particular classes, or classes
  * annotated with a specific annotation.</p>
  *
+ * <p>When the class path holds an index written by {@link ClassIndexProcessor} that lists classes
+ * of the package, the classes are taken from the index instead, and classes that the index shows
+ * cannot pass an {@link IsA} or {@link AnnotatedWith} test are not loaded.</p>
+ *
  * <p>The standard usage pattern for the ResolverUtil class is as follows:</p>
  *
  * <pre>
@@ -214,6 +219,16 @@ public class ResolverUtil<T> {
    *        classes, e.g. {@code net.sourceforge.stripes}
    */
   public ResolverUtil<T> find(Test test, String packageName) {
+    List<ClassIndex.Entry> indexed = ClassIndex.forClassLoader(getClassLoader()).find(packageName);
+    if (!indexed.isEmpty()) {
+      for (ClassIndex.Entry entry : indexed) {
+        if (mayMatch(test, entry)) {
+          addIfMatching(test, entry.getName().replace('.', '/') + ".class");
+        }
+      }
+      return this;
+    }
+
     String path = getPackagePath(packageName);
 
     try {
@@ -230,6 +245,16 @@ public class ResolverUtil<T> {
     return this;
   }
 
+  private static boolean mayMatch(Test test, ClassIndex.Entry entry) {
+    if (test.getClass() == IsA.class) {
+      return entry.mayBeA(((IsA) test).parent.getName());
+    }
+    if (test.getClass() == AnnotatedWith.class) {
+      return entry.mayBeAnnotatedWith(((AnnotatedWith) test).annotation.getName());
+    }
+    return true;
+  }
+
   /**
    * Converts a Java package name to a path that can be looked up with a call to
    * {@link ClassLoader#getResources(String)}.
@@ -257,6 +282,7 @@ public class ResolverUtil<T> {
       }
 
       Class<?> type = loader.loadClass(externalName);
+      BuildProfiler.classLoaded();
       if (test.matches(type)) {
         matches.add((Class<T>) type);
       }
@@ -35,18 +35,27 @@ import org.apache.ibatis.session.Configuration;
  */
 public class BoundSql {
 
+  private final Configuration configuration;
   private final String sql;
   private final List<ParameterMapping> parameterMappings;
   private final Object parameterObject;
   private final Map<String, Object> additionalParameters;
-  private final MetaObject metaParameters;
+  private MetaObject metaParameters;
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    this(configuration, sql, parameterMappings, parameterObject, new HashMap<>());
+  }
+
+  /**
+   * Creates a bound SQL whose additional parameters are read from and written to the given map, which is not copied.
+   */
+  public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject,
+      Map<String, Object> additionalParameters) {
+    this.configuration = configuration;
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.parameterObject = parameterObject;
-    this.additionalParameters = new HashMap<>();
-    this.metaParameters = configuration.newMetaObject(additionalParameters);
+    this.additionalParameters = additionalParameters;
   }
 
   public String getSql() {
@@ -62,15 +71,40 @@ public class BoundSql {
   }
 
   public boolean hasAdditionalParameter(String name) {
+    if (isSimpleName(name)) {
+      return additionalParameters.containsKey(name);
+    }
     String paramName = new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
   }
 
   public void setAdditionalParameter(String name, Object value) {
-    metaParameters.setValue(name, value);
+    if (isSimpleName(name)) {
+      additionalParameters.put(name, value);
+    } else {
+      getMetaParameters().setValue(name, value);
+    }
   }
 
   public Object getAdditionalParameter(String name) {
-    return metaParameters.getValue(name);
+    // the map may resolve missing keys by itself, as the dynamic context bindings do
+    if (!hasAdditionalParameter(name)) {
+      return null;
+    }
+    if (isSimpleName(name)) {
+      return additionalParameters.get(name);
+    }
+    return getMetaParameters().getValue(name);
+  }
+
+  private MetaObject getMetaParameters() {
+    if (metaParameters == null) {
+      metaParameters = configuration.newMetaObject(additionalParameters);
+    }
+    return metaParameters;
+  }
+
+  private static boolean isSimpleName(String name) {
+    return name.indexOf('.') < 0 && name.indexOf('[') < 0;
   }
 }
@@ -39,14 +39,13 @@ public class GenericTokenParser {
     if (start == -1) {
       return text;
     }
-    char[] src = text.toCharArray();
     int offset = 0;
-    final StringBuilder builder = new StringBuilder();
+    final StringBuilder builder = new StringBuilder(text.length());
     StringBuilder expression = null;
     while (start > -1) {
-      if (start > 0 && src[start - 1] == '\\') {
+      if (start > 0 && text.charAt(start - 1) == '\\') {
         // this open token is escaped. remove the backslash and continue.
-        builder.append(src, offset, start - offset - 1).append(openToken);
+        builder.append(text, offset, start - 1).append(openToken);
         offset = start + openToken.length();
       } else {
         // found open token. let's search close token.
@@ -55,25 +54,25 @@ public class GenericTokenParser {
         } else {
           expression.setLength(0);
         }
-        builder.append(src, offset, start - offset);
+        builder.append(text, offset, start);
         offset = start + openToken.length();
         int end = text.indexOf(closeToken, offset);
         while (end > -1) {
-          if (end > offset && src[end - 1] == '\\') {
+          if (end > offset && text.charAt(end - 1) == '\\') {
             // this close token is escaped. remove the backslash and continue.
-            expression.append(src, offset, end - offset - 1).append(closeToken);
+            expression.append(text, offset, end - 1).append(closeToken);
             offset = end + closeToken.length();
             end = text.indexOf(closeToken, offset);
           } else {
-            expression.append(src, offset, end - offset);
+            expression.append(text, offset, end);
             offset = end + closeToken.length();
             break;
           }
         }
         if (end == -1) {
           // close token was not found.
-          builder.append(src, start, src.length - start);
-          offset = src.length;
+          builder.append(text, start, text.length());
+          offset = text.length();
         } else {
           builder.append(handler.handleToken(expression.toString()));
           offset = end + closeToken.length();
@@ -81,8 +80,8 @@ public class GenericTokenParser {
       }
       start = text.indexOf(openToken, offset);
     }
-    if (offset < src.length) {
-      builder.append(src, offset, src.length - offset);
+    if (offset < text.length()) {
+      builder.append(text, offset, text.length());
     }
     return builder.toString();
   }
@@ -19,8 +19,17 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
@@ -199,6 +208,13 @@ public class XPathParser {
 
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<>();
+    ElementPath path = root instanceof Node ? ElementPath.of(expression) : null;
+    if (path != null) {
+      for (Node node : path.select((Node) root)) {
+        xnodes.add(new XNode(this, node, variables));
+      }
+      return xnodes;
+    }
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       xnodes.add(new XNode(this, nodes.item(i), variables));
@@ -211,7 +227,14 @@ public class XPathParser {
   }
 
   public XNode evalNode(Object root, String expression) {
-    Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    ElementPath path = root instanceof Node ? ElementPath.of(expression) : null;
+    Node node;
+    if (path != null) {
+      List<Node> nodes = path.select((Node) root);
+      node = nodes.isEmpty() ? null : nodes.get(0);
+    } else {
+      node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    }
     if (node == null) {
       return null;
     }
@@ -229,16 +252,15 @@ public class XPathParser {
   private Document createDocument(InputSource inputSource) {
     // important: this must only be called AFTER common constructor
     try {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      factory.setValidating(validation);
-
-      factory.setNamespaceAware(false);
-      factory.setIgnoringComments(true);
-      factory.setIgnoringElementContentWhitespace(false);
-      factory.setCoalescing(false);
-      factory.setExpandEntityReferences(true);
-
-      DocumentBuilder builder = factory.newDocumentBuilder();
+      Factories factories = Factories.get();
+      DocumentBuilderFactory factory = validation ? factories.validatingDocumentBuilderFactory : factories.documentBuilderFactory;
+      DocumentBuilder builder;
+      factories.lock.lock();
+      try {
+        builder = factory.newDocumentBuilder();
+      } finally {
+        factories.lock.unlock();
+      }
       builder.setEntityResolver(entityResolver);
       builder.setErrorHandler(new ErrorHandler() {
         @Override
@@ -265,8 +287,169 @@ public class XPathParser {
     this.validation = validation;
     this.entityResolver = entityResolver;
     this.variables = variables;
-    XPathFactory factory = XPathFactory.newInstance();
-    this.xpath = factory.newXPath();
+    Factories factories = Factories.get();
+    factories.lock.lock();
+    try {
+      this.xpath = factories.xpathFactory.newXPath();
+    } finally {
+      factories.lock.unlock();
+    }
+  }
+
+  /**
+   * The element paths used by the builders, like <code>/mapper/resultMap</code>, <code>settings</code> or
+   * <code>select|insert|update|delete</code>, are resolved by walking the child elements, which is much faster
+   * than evaluating them as XPath. The nodes are returned in document order, as XPath does.
+   */
+  private static final class ElementPath {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][\\w.-]*");
+    private static final ElementPath UNSUPPORTED = new ElementPath(false, null, null);
+    /** Enough for the fixed paths of the builders; expressions built at run time are parsed again. */
+    private static final int MAX_PATHS = 256;
+    private static final ConcurrentMap<String, ElementPath> PATHS = new ConcurrentHashMap<>();
+
+    private final boolean absolute;
+    private final String[] steps;
+    private final Set<String> names;
+
+    private ElementPath(boolean absolute, String[] steps, Set<String> names) {
+      this.absolute = absolute;
+      this.steps = steps;
+      this.names = names;
+    }
+
+    /**
+     * @return the path, or <code>null</code> when the expression needs XPath
+     */
+    static ElementPath of(String expression) {
+      ElementPath path = PATHS.get(expression);
+      if (path == null) {
+        path = parse(expression);
+        if (path == UNSUPPORTED) {
+          return null;
+        }
+        if (PATHS.size() < MAX_PATHS) {
+          PATHS.putIfAbsent(expression, path);
+        }
+      }
+      return path;
+    }
+
+    private static ElementPath parse(String expression) {
+      if (expression.indexOf('|') >= 0) {
+        // a union of child names, matched in a single pass over the children
+        Set<String> names = new HashSet<>();
+        for (String name : expression.split("\\|", -1)) {
+          if (!NAME.matcher(name).matches()) {
+            return UNSUPPORTED;
+          }
+          names.add(name);
+        }
+        return new ElementPath(false, null, names);
+      }
+      boolean absolute = expression.startsWith("/");
+      String[] steps = (absolute ? expression.substring(1) : expression).split("/", -1);
+      for (String step : steps) {
+        if (!NAME.matcher(step).matches()) {
+          return UNSUPPORTED;
+        }
+      }
+      return new ElementPath(absolute, steps, null);
+    }
+
+    List<Node> select(Node root) {
+      List<Node> nodes = new ArrayList<>();
+      if (names != null) {
+        addChildElements(root, null, nodes);
+        return nodes;
+      }
+      Node start = absolute && root.getNodeType() != Node.DOCUMENT_NODE ? root.getOwnerDocument() : root;
+      nodes.add(start);
+      for (String step : steps) {
+        List<Node> children = new ArrayList<>();
+        for (Node node : nodes) {
+          addChildElements(node, step, children);
+        }
+        nodes = children;
+      }
+      return nodes;
+    }
+
+    private void addChildElements(Node parent, String name, List<Node> nodes) {
+      for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child.getNodeType() == Node.ELEMENT_NODE
+            && (name != null ? name.equals(child.getNodeName()) : names.contains(child.getNodeName()))) {
+          nodes.add(child);
+        }
+      }
+    }
+  }
+
+  /**
+   * Looking up the JAXP implementations scans the class path, so it is only done once per context class loader rather
+   * than for every mapper file, and again when the JAXP system properties change. Factories implemented by classes of
+   * the context class loader itself are not kept, as they would keep the class loader from being unloaded. The
+   * factories are not thread-safe and are never modified after their creation.
+   */
+  private static final class Factories {
+    private static final Map<ClassLoader, Factories> CACHE = new WeakHashMap<>();
+    private static final Lock CACHE_LOCK = new ReentrantLock();
+
+    /** Guards the creation of document builders and XPath objects from the factories. */
+    private final Lock lock = new ReentrantLock();
+    private final String properties;
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final DocumentBuilderFactory validatingDocumentBuilderFactory;
+    private final XPathFactory xpathFactory;
+
+    private Factories(String properties) {
+      this.properties = properties;
+      this.documentBuilderFactory = newDocumentBuilderFactory(false);
+      this.validatingDocumentBuilderFactory = newDocumentBuilderFactory(true);
+      this.xpathFactory = XPathFactory.newInstance();
+    }
+
+    static Factories get() {
+      ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+      String properties = System.getProperty(DocumentBuilderFactory.class.getName()) + "|"
+          + System.getProperty(XPathFactory.DEFAULT_PROPERTY_NAME + ":" + XPathFactory.DEFAULT_OBJECT_MODEL_URI);
+      CACHE_LOCK.lock();
+      try {
+        Factories factories = CACHE.get(classLoader);
+        if (factories != null && factories.properties.equals(properties)) {
+          return factories;
+        }
+      } finally {
+        CACHE_LOCK.unlock();
+      }
+      Factories factories = new Factories(properties);
+      if (classLoader == null || (!isLoadedBy(factories.documentBuilderFactory, classLoader)
+          && !isLoadedBy(factories.xpathFactory, classLoader))) {
+        CACHE_LOCK.lock();
+        try {
+          CACHE.put(classLoader, factories);
+        } finally {
+          CACHE_LOCK.unlock();
+        }
+      }
+      return factories;
+    }
+
+    private static boolean isLoadedBy(Object factory, ClassLoader classLoader) {
+      return factory.getClass().getClassLoader() == classLoader;
+    }
+
+    private static DocumentBuilderFactory newDocumentBuilderFactory(boolean validation) {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setValidating(validation);
+
+      factory.setNamespaceAware(false);
+      factory.setIgnoringComments(true);
+      factory.setIgnoringElementContentWhitespace(false);
+      factory.setCoalescing(false);
+      factory.setExpandEntityReferences(true);
+      return factory;
+    }
   }
 
 }
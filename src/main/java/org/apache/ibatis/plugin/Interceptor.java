@@ -24,8 +24,20 @@ public interface Interceptor {
 
   Object intercept(Invocation invocation) throws Throwable;
 
-  Object plugin(Object target);
+  /**
+   * Wraps the target with this interceptor.
+   * <p>
+   * Interceptors that keep this default implementation are combined by {@link InterceptorChain} into a single proxy
+   * per target, which only calls the interceptors matching each method. Override it only when the target needs to be
+   * wrapped in a custom way: an interceptor overriding it, even with <code>return Plugin.wrap(target, this);</code> as
+   * interceptors written for earlier versions do, keeps wrapping the target with a proxy of its own.
+   */
+  default Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
 
-  void setProperties(Properties properties);
+  default void setProperties(Properties properties) {
+    // NOP
+  }
 
 }
@@ -18,6 +18,7 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Clinton Begin
@@ -25,20 +26,46 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
+  private List<UnaryOperator<Object>> plugins = Collections.emptyList();
 
   public Object pluginAll(Object target) {
-    for (Interceptor interceptor : interceptors) {
-      target = interceptor.plugin(target);
+    for (UnaryOperator<Object> plugin : plugins) {
+      target = plugin.apply(target);
     }
     return target;
   }
 
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    plugins = buildPlugins(interceptors);
   }
   
   public List<Interceptor> getInterceptors() {
     return Collections.unmodifiableList(interceptors);
   }
 
+  /**
+   * Consecutive interceptors that do not override {@link Interceptor#plugin(Object)} share one {@link PluginChain}, the
+   * others are applied through their own plugin method as before.
+   */
+  private static List<UnaryOperator<Object>> buildPlugins(List<Interceptor> interceptors) {
+    List<UnaryOperator<Object>> plugins = new ArrayList<>();
+    List<Interceptor> run = new ArrayList<>();
+    for (Interceptor interceptor : interceptors) {
+      if (PluginChain.usesDefaultPlugin(interceptor)) {
+        run.add(interceptor);
+      } else {
+        if (!run.isEmpty()) {
+          plugins.add(new PluginChain(run)::wrap);
+          run = new ArrayList<>();
+        }
+        plugins.add(interceptor::plugin);
+      }
+    }
+    if (!run.isEmpty()) {
+      plugins.add(new PluginChain(run)::wrap);
+    }
+    return Collections.unmodifiableList(plugins);
+  }
+
 }
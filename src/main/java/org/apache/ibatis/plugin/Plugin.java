@@ -18,6 +18,7 @@ package org.apache.ibatis.plugin;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -30,6 +31,28 @@ import org.apache.ibatis.reflection.ExceptionUtil;
  */
 public class Plugin implements InvocationHandler {
 
+  private static final ClassValue<Map<Class<?>, Set<Method>>> signatureMaps = new ClassValue<Map<Class<?>, Set<Method>>>() {
+    @Override
+    protected Map<Class<?>, Set<Method>> computeValue(Class<?> type) {
+      return buildSignatureMap(type);
+    }
+  };
+
+  // interceptor class -> target class -> intercepted interfaces, so wrapping a new target does not walk its hierarchy.
+  // The interfaces are stored on the target class, so neither class keeps the other one from being unloaded.
+  private static final ClassValue<ClassValue<Class<?>[]>> interfaceCaches = new ClassValue<ClassValue<Class<?>[]>>() {
+    @Override
+    protected ClassValue<Class<?>[]> computeValue(Class<?> interceptorType) {
+      final Map<Class<?>, Set<Method>> signatureMap = signatureMaps.get(interceptorType);
+      return new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+          return getAllInterfaces(type, signatureMap);
+        }
+      };
+    }
+  };
+
   private final Object target;
   private final Interceptor interceptor;
   private final Map<Class<?>, Set<Method>> signatureMap;
@@ -43,7 +66,7 @@ public class Plugin implements InvocationHandler {
   public static Object wrap(Object target, Interceptor interceptor) {
     Map<Class<?>, Set<Method>> signatureMap = getSignatureMap(interceptor);
     Class<?> type = target.getClass();
-    Class<?>[] interfaces = getAllInterfaces(type, signatureMap);
+    Class<?>[] interfaces = interfaceCaches.get(interceptor.getClass()).get(type);
     if (interfaces.length > 0) {
       return Proxy.newProxyInstance(
           type.getClassLoader(),
@@ -66,11 +89,15 @@ public class Plugin implements InvocationHandler {
     }
   }
 
-  private static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
-    Intercepts interceptsAnnotation = interceptor.getClass().getAnnotation(Intercepts.class);
+  static Map<Class<?>, Set<Method>> getSignatureMap(Interceptor interceptor) {
+    return signatureMaps.get(interceptor.getClass());
+  }
+
+  private static Map<Class<?>, Set<Method>> buildSignatureMap(Class<?> interceptorType) {
+    Intercepts interceptsAnnotation = interceptorType.getAnnotation(Intercepts.class);
     // issue #251
     if (interceptsAnnotation == null) {
-      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptor.getClass().getName());      
+      throw new PluginException("No @Intercepts annotation was found in interceptor " + interceptorType.getName());      
     }
     Signature[] sigs = interceptsAnnotation.value();
     Map<Class<?>, Set<Method>> signatureMap = new HashMap<>();
@@ -83,10 +110,10 @@ public class Plugin implements InvocationHandler {
         throw new PluginException("Could not find method on " + sig.type() + " named " + sig.method() + ". Cause: " + e, e);
       }
     }
-    return signatureMap;
+    return Collections.unmodifiableMap(signatureMap);
   }
 
-  private static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
+  static Class<?>[] getAllInterfaces(Class<?> type, Map<Class<?>, Set<Method>> signatureMap) {
     Set<Class<?>> interfaces = new HashSet<>();
     while (type != null) {
       for (Class<?> c : type.getInterfaces()) {
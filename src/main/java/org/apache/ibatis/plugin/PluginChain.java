@@ -0,0 +1,227 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Applies a run of interceptors to a target with a single proxy instead of one {@link Plugin} proxy per interceptor.
+ * <p>
+ * The interceptors matching each method and the proxy constructor are resolved once per target class, so wrapping
+ * the handlers created for every execution only allocates the proxy. A call runs them from the outermost
+ * (last added) to the innermost, exactly as nested {@link Plugin} proxies would, and methods no interceptor matches
+ * are invoked on the target directly. {@link Invocation#getTarget()} returns what the nested proxies would have
+ * returned: a proxy applying only the inner interceptors, or the target itself when there are none.
+ */
+class PluginChain {
+
+  private static final int[] NONE = new int[0];
+
+  private final Interceptor[] interceptors;
+  private final Map<Class<?>, Dispatch> dispatches = new ConcurrentHashMap<>();
+
+  PluginChain(List<Interceptor> interceptors) {
+    this.interceptors = interceptors.toArray(new Interceptor[interceptors.size()]);
+  }
+
+  static boolean usesDefaultPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() == Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  Object wrap(Object target) {
+    Dispatch dispatch = dispatches.get(target.getClass());
+    if (dispatch == null) {
+      dispatch = dispatches.computeIfAbsent(target.getClass(), this::createDispatch);
+    }
+    return dispatch.wrap(target, interceptors.length);
+  }
+
+  private Dispatch createDispatch(Class<?> type) {
+    Set<Class<?>> interfaces = new LinkedHashSet<>();
+    Map<Method, List<Integer>> matches = new HashMap<>();
+    List<Integer> wrapping = new ArrayList<>();
+    // outermost first
+    for (int i = interceptors.length - 1; i >= 0; i--) {
+      Map<Class<?>, Set<Method>> signatureMap = Plugin.getSignatureMap(interceptors[i]);
+      Class<?>[] matchingInterfaces = Plugin.getAllInterfaces(type, signatureMap);
+      if (matchingInterfaces.length == 0) {
+        continue;
+      }
+      wrapping.add(i);
+      for (Class<?> matchingInterface : matchingInterfaces) {
+        interfaces.add(matchingInterface);
+        for (Method method : signatureMap.get(matchingInterface)) {
+          matches.computeIfAbsent(method, k -> new ArrayList<>()).add(i);
+        }
+      }
+    }
+    Map<Method, int[]> interceptorIndexes = new HashMap<>();
+    for (Map.Entry<Method, List<Integer>> entry : matches.entrySet()) {
+      interceptorIndexes.put(entry.getKey(), toArray(entry.getValue()));
+    }
+    return new Dispatch(type, interfaces.toArray(new Class<?>[interfaces.size()]), interceptorIndexes, toArray(wrapping));
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+  private class Dispatch {
+
+    private final Class<?> type;
+    private final Class<?>[] interfaces;
+    private final Map<Method, int[]> interceptorIndexes;
+    private final int[] wrappingInterceptors;
+    private volatile Constructor<?> proxyConstructor;
+
+    Dispatch(Class<?> type, Class<?>[] interfaces, Map<Method, int[]> interceptorIndexes, int[] wrappingInterceptors) {
+      this.type = type;
+      this.interfaces = interfaces;
+      this.interceptorIndexes = interceptorIndexes;
+      this.wrappingInterceptors = wrappingInterceptors;
+    }
+
+    /**
+     * Wraps the target with the interceptors whose index is lower than the limit.
+     */
+    Object wrap(Object target, int limit) {
+      // indexes are in descending order
+      for (int index : wrappingInterceptors) {
+        if (index < limit) {
+          return newProxy(new Handler(target, this, limit));
+        }
+      }
+      return target;
+    }
+
+    private Object newProxy(Handler handler) {
+      Constructor<?> constructor = proxyConstructor;
+      if (constructor != null) {
+        try {
+          return constructor.newInstance(handler);
+        } catch (ReflectiveOperationException e) {
+          throw new PluginException("Could not create a proxy for " + type.getName() + ". Cause: " + e, e);
+        }
+      }
+      Object proxy = Proxy.newProxyInstance(type.getClassLoader(), interfaces, handler);
+      // proxies of non-public interfaces live in packages we may not access, keep creating those through Proxy
+      if (Modifier.isPublic(proxy.getClass().getModifiers())) {
+        try {
+          proxyConstructor = proxy.getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException | SecurityException e) {
+          // ignore, keep creating proxies through Proxy
+        }
+      }
+      return proxy;
+    }
+
+    int[] getInterceptorIndexes(Method method) {
+      int[] indexes = interceptorIndexes.get(method);
+      return indexes == null ? NONE : indexes;
+    }
+
+  }
+
+  private class Handler implements InvocationHandler {
+
+    private final Object target;
+    private final Dispatch dispatch;
+    private final int limit;
+
+    Handler(Object target, Dispatch dispatch, int limit) {
+      this.target = target;
+      this.dispatch = dispatch;
+      this.limit = limit;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        int[] indexes = dispatch.getInterceptorIndexes(method);
+        for (int position = 0; position < indexes.length; position++) {
+          if (indexes[position] < limit) {
+            return interceptors[indexes[position]].intercept(new ChainedInvocation(this, method, args, indexes, position));
+          }
+        }
+        return method.invoke(target, args);
+      } catch (Exception e) {
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+
+  }
+
+  private class ChainedInvocation extends Invocation {
+
+    private final Handler handler;
+    private final int[] indexes;
+    private final int position;
+    private Object chainedTarget;
+
+    ChainedInvocation(Handler handler, Method method, Object[] args, int[] indexes, int position) {
+      super(handler.target, method, args);
+      this.handler = handler;
+      this.indexes = indexes;
+      this.position = position;
+    }
+
+    @Override
+    public Object getTarget() {
+      if (chainedTarget == null) {
+        chainedTarget = handler.dispatch.wrap(handler.target, indexes[position]);
+      }
+      return chainedTarget;
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      final int next = position + 1;
+      if (next == indexes.length) {
+        return super.proceed();
+      }
+      // behaves like invoking the method on the next nested proxy
+      try {
+        return interceptors[indexes[next]].intercept(new ChainedInvocation(handler, getMethod(), getArgs(), indexes, next));
+      } catch (Throwable t) {
+        throw new InvocationTargetException(ExceptionUtil.unwrapThrowable(t));
+      }
+    }
+
+  }
+
+}
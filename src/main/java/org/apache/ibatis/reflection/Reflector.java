@@ -37,6 +37,7 @@ import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.session.BuildProfiler;
 
 /**
  * This class represents a cached set of class definition information that
@@ -58,6 +59,7 @@ public class Reflector {
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
   public Reflector(Class<?> clazz) {
+    BuildProfiler.reflectorCreated();
     type = clazz;
     addDefaultConstructor(clazz);
     addGetMethods(clazz);
@@ -63,36 +63,83 @@ public class DefaultParameterHandler implements ParameterHandler {
     ErrorContext.instance().activity("setting parameters").object(mappedStatement.getParameterMap().getId());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings != null) {
-      for (int i = 0; i < parameterMappings.size(); i++) {
-        ParameterMapping parameterMapping = parameterMappings.get(i);
-        if (parameterMapping.getMode() != ParameterMode.OUT) {
+      ParameterBindingPlan plan = getParameterBindingPlan(parameterMappings);
+      if (plan == null) {
+        setParameters(ps, parameterMappings);
+        return;
+      }
+      boolean useGetters = parameterObject != null && !configuration.getObjectWrapperFactory().hasWrapperFor(parameterObject);
+      MetaObject metaObject = null;
+      for (int i = 0; i < plan.size(); i++) {
+        if (!plan.isOutput(i)) {
           Object value;
-          String propertyName = parameterMapping.getProperty();
+          String propertyName = plan.getProperty(i);
           if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
             value = boundSql.getAdditionalParameter(propertyName);
           } else if (parameterObject == null) {
             value = null;
-          } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+          } else if (plan.isParameterValue()) {
             value = parameterObject;
+          } else if (useGetters && plan.hasGetter(i)) {
+            value = plan.getValue(i, parameterObject);
           } else {
-            MetaObject metaObject = configuration.newMetaObject(parameterObject);
+            if (metaObject == null) {
+              metaObject = configuration.newMetaObject(parameterObject);
+            }
             value = metaObject.getValue(propertyName);
           }
-          TypeHandler typeHandler = parameterMapping.getTypeHandler();
-          JdbcType jdbcType = parameterMapping.getJdbcType();
+          TypeHandler typeHandler = plan.getTypeHandler(i);
+          JdbcType jdbcType = plan.getJdbcType(i);
           if (value == null && jdbcType == null) {
             jdbcType = configuration.getJdbcTypeForNull();
           }
           try {
             typeHandler.setParameter(ps, i + 1, value, jdbcType);
           } catch (TypeException e) {
-            throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+            throw new TypeException("Could not set parameters for mapping: " + plan.getParameterMapping(i) + ". Cause: " + e, e);
           } catch (SQLException e) {
-            throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+            throw new TypeException("Could not set parameters for mapping: " + plan.getParameterMapping(i) + ". Cause: " + e, e);
           }
         }
       }
     }
   }
 
+  private void setParameters(PreparedStatement ps, List<ParameterMapping> parameterMappings) {
+    for (int i = 0; i < parameterMappings.size(); i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() != ParameterMode.OUT) {
+        Object value;
+        String propertyName = parameterMapping.getProperty();
+        if (boundSql.hasAdditionalParameter(propertyName)) { // issue #448 ask first for additional params
+          value = boundSql.getAdditionalParameter(propertyName);
+        } else if (parameterObject == null) {
+          value = null;
+        } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+          value = parameterObject;
+        } else {
+          MetaObject metaObject = configuration.newMetaObject(parameterObject);
+          value = metaObject.getValue(propertyName);
+        }
+        TypeHandler typeHandler = parameterMapping.getTypeHandler();
+        JdbcType jdbcType = parameterMapping.getJdbcType();
+        if (value == null && jdbcType == null) {
+          jdbcType = configuration.getJdbcTypeForNull();
+        }
+        try {
+          typeHandler.setParameter(ps, i + 1, value, jdbcType);
+        } catch (TypeException e) {
+          throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+        } catch (SQLException e) {
+          throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+        }
+      }
+    }
+  }
+
+  private ParameterBindingPlan getParameterBindingPlan(List<ParameterMapping> parameterMappings) {
+    Class<?> parameterClass = parameterObject == null ? null : parameterObject.getClass();
+    return configuration.getParameterBindingPlanCache().get(mappedStatement, parameterMappings, parameterClass);
+  }
+
 }
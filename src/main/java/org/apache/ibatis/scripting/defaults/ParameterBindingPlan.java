@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * What {@link DefaultParameterHandler} resolves for each parameter of a statement and a parameter class: the type
+ * handler, the JDBC type and, for simple bean properties, the getter.
+ * <p>
+ * A plan applies to the parameter mappings it was built for. Dynamic SQL sources that reuse their parsed SQL return
+ * new lists of the same mappings, so the mappings are compared one by one.
+ */
+public final class ParameterBindingPlan {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final ParameterMapping[] parameterMappings;
+  private final Class<?> parameterClass;
+  private final boolean parameterIsValue;
+  private final String[] properties;
+  private final boolean[] outputs;
+  private final TypeHandler<?>[] typeHandlers;
+  private final JdbcType[] jdbcTypes;
+  private final Invoker[] getters;
+
+  ParameterBindingPlan(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterClass) {
+    int size = parameterMappings.size();
+    this.parameterMappings = parameterMappings.toArray(new ParameterMapping[size]);
+    this.parameterClass = parameterClass;
+    this.parameterIsValue = parameterClass != null && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterClass);
+    this.properties = new String[size];
+    this.outputs = new boolean[size];
+    this.typeHandlers = new TypeHandler<?>[size];
+    this.jdbcTypes = new JdbcType[size];
+    this.getters = new Invoker[size];
+    Reflector reflector = isBean(parameterClass) ? configuration.getReflectorFactory().findForClass(parameterClass) : null;
+    for (int i = 0; i < size; i++) {
+      ParameterMapping parameterMapping = this.parameterMappings[i];
+      String property = parameterMapping.getProperty();
+      properties[i] = property;
+      outputs[i] = parameterMapping.getMode() == ParameterMode.OUT;
+      typeHandlers[i] = parameterMapping.getTypeHandler();
+      jdbcTypes[i] = parameterMapping.getJdbcType();
+      if (reflector != null && property.indexOf('.') < 0 && property.indexOf('[') < 0 && reflector.hasGetter(property)) {
+        getters[i] = reflector.getGetInvoker(property);
+      }
+    }
+  }
+
+  private static boolean isBean(Class<?> type) {
+    return type != null && !Map.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type)
+        && !ObjectWrapper.class.isAssignableFrom(type);
+  }
+
+  boolean appliesTo(List<ParameterMapping> parameterMappings, Class<?> parameterClass) {
+    if (this.parameterClass != parameterClass || this.parameterMappings.length != parameterMappings.size()) {
+      return false;
+    }
+    for (int i = 0; i < this.parameterMappings.length; i++) {
+      if (this.parameterMappings[i] != parameterMappings.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int size() {
+    return properties.length;
+  }
+
+  ParameterMapping getParameterMapping(int index) {
+    return parameterMappings[index];
+  }
+
+  boolean isOutput(int index) {
+    return outputs[index];
+  }
+
+  String getProperty(int index) {
+    return properties[index];
+  }
+
+  boolean isParameterValue() {
+    return parameterIsValue;
+  }
+
+  @SuppressWarnings("rawtypes")
+  TypeHandler getTypeHandler(int index) {
+    return typeHandlers[index];
+  }
+
+  JdbcType getJdbcType(int index) {
+    return jdbcTypes[index];
+  }
+
+  boolean hasGetter(int index) {
+    return getters[index] != null;
+  }
+
+  Object getValue(int index, Object parameterObject) {
+    try {
+      try {
+        return getters[index].invoke(parameterObject, NO_ARGUMENTS);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable t) {
+      // same message as the bean wrapper
+      throw new ReflectionException("Could not get property '" + properties[index] + "' from " + parameterClass + ".  Cause: " + t.toString(), t);
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+
+/**
+ * The {@link ParameterBindingPlan}s built by {@link DefaultParameterHandler}, kept for each statement and each parameter
+ * class and list of parameter mappings the statement is executed with. A statement keeps a few plans, so that
+ * alternating between e.g. a bean and a map does not rebuild them; further variants replace the oldest plan.
+ * <p>
+ * A plan is only built once the same parameter mappings are seen a second time. Dynamic SQL that is parsed again on
+ * every execution (e.g. when it is too long for the {@link org.apache.ibatis.builder.SqlSourceCache}) creates new
+ * mappings each time; such executions bind their parameters without a plan and do not evict the plans of the others.
+ *
+ * @since 3.5.0
+ */
+public final class ParameterBindingPlanCache {
+
+  static final int MAX_PLANS_PER_STATEMENT = 8;
+
+  private final ConcurrentMap<MappedStatement, ParameterBindingPlan[]> plans = new ConcurrentHashMap<>();
+  // the mappings of the last execution of each statement no plan applied to
+  private final ConcurrentMap<MappedStatement, Miss> misses = new ConcurrentHashMap<>();
+
+  /**
+   * @return the plan, or <code>null</code> when these mappings were not seen before
+   */
+  ParameterBindingPlan get(MappedStatement mappedStatement, List<ParameterMapping> parameterMappings, Class<?> parameterClass) {
+    ParameterBindingPlan[] statementPlans = plans.get(mappedStatement);
+    if (statementPlans != null) {
+      for (ParameterBindingPlan plan : statementPlans) {
+        if (plan.appliesTo(parameterMappings, parameterClass)) {
+          return plan;
+        }
+      }
+    }
+    Miss miss = misses.put(mappedStatement, new Miss(parameterMappings, parameterClass));
+    if (miss == null || !miss.isSameAs(parameterMappings, parameterClass)) {
+      return null;
+    }
+    ParameterBindingPlan plan = new ParameterBindingPlan(mappedStatement.getConfiguration(), parameterMappings, parameterClass);
+    plans.compute(mappedStatement, (key, current) -> {
+      if (current == null) {
+        return new ParameterBindingPlan[] { plan };
+      }
+      int from = current.length < MAX_PLANS_PER_STATEMENT ? 0 : 1;
+      ParameterBindingPlan[] updated = Arrays.copyOfRange(current, from, current.length + 1);
+      updated[updated.length - 1] = plan;
+      return updated;
+    });
+    return plan;
+  }
+
+  /**
+   * Discards all the plans, e.g. after statements were replaced.
+   */
+  public void clear() {
+    plans.clear();
+    misses.clear();
+  }
+
+  private static final class Miss {
+    private final List<ParameterMapping> parameterMappings;
+    private final Class<?> parameterClass;
+
+    Miss(List<ParameterMapping> parameterMappings, Class<?> parameterClass) {
+      this.parameterMappings = parameterMappings;
+      this.parameterClass = parameterClass;
+    }
+
+    boolean isSameAs(List<ParameterMapping> parameterMappings, Class<?> parameterClass) {
+      if (this.parameterClass != parameterClass || this.parameterMappings.size() != parameterMappings.size()) {
+        return false;
+      }
+      // mappings parsed again differ from the first one on
+      for (int i = 0; i < parameterMappings.size(); i++) {
+        if (this.parameterMappings.get(i) != parameterMappings.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
@@ -0,0 +1,43 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * An {@link XMLLanguageDriver} that compiles scripts into {@link TemplateSqlSource}s when they only use static text,
+ * if, choose, where, set and trim elements. Other scripts get the same SQL source as with the XML driver.
+ * <p>
+ * It can be selected with the <code>COMPILED_XML</code> alias in the <code>defaultScriptingLanguage</code> setting,
+ * the <code>lang</code> attribute or the <code>@Lang</code> annotation.
+ */
+public class CompiledXMLLanguageDriver extends XMLLanguageDriver {
+
+  @Override
+  public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+    SqlSource sqlSource = super.createSqlSource(configuration, script, parameterType);
+    if (sqlSource instanceof DynamicSqlSource) {
+      SqlSource templateSqlSource = TemplateSqlSource.compile(configuration, script);
+      if (templateSqlSource != null) {
+        return templateSqlSource;
+      }
+    }
+    return sqlSource;
+  }
+
+}
@@ -0,0 +1,519 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import ognl.OgnlOps;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+
+/**
+ * Compiles the subset of OGNL that dynamic SQL tests are usually made of into a tree of direct accessors:
+ * property paths, <code>null</code>, string, number and boolean literals, the comparison operators
+ * (<code>== != &lt; &gt; &lt;= &gt;=</code> and their <code>eq neq lt gt lte gte</code> forms),
+ * <code>and</code>/<code>or</code>/<code>not</code> (and <code>&amp;&amp; || !</code>), parentheses and the
+ * <code>size()</code>, <code>isEmpty()</code> and <code>length()</code> methods.
+ * <p>
+ * Operators are applied through {@link OgnlOps}, so the results are the ones OGNL would return. Expressions outside
+ * of the subset are not compiled, and a compiled expression hands over to {@link OgnlCache} whenever it meets a value
+ * it does not handle the way OGNL does (collections and arrays used as property targets, <code>null</code> targets,
+ * special map keys, failing getters...).
+ */
+public class DefaultExpressionCompiler implements ExpressionCompiler {
+
+  private static final Object UNRESOLVED = new Object();
+  private static final DynamicContext.ContextAccessor CONTEXT_ACCESSOR = new DynamicContext.ContextAccessor();
+
+  private final ReflectorFactory reflectorFactory;
+
+  public DefaultExpressionCompiler() {
+    this(new DefaultReflectorFactory());
+  }
+
+  public DefaultExpressionCompiler(ReflectorFactory reflectorFactory) {
+    this.reflectorFactory = reflectorFactory;
+  }
+
+  @Override
+  public CompiledExpression compile(String expression) {
+    try {
+      return new FallbackExpression(expression, new Parser(expression).parse());
+    } catch (UnsupportedExpressionException e) {
+      return null;
+    }
+  }
+
+  private static final class FallbackExpression implements CompiledExpression {
+    private final String expression;
+    private final Node node;
+
+    FallbackExpression(String expression, Node node) {
+      this.expression = expression;
+      this.node = node;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      Object value;
+      try {
+        value = node.getValue(root);
+      } catch (Exception e) {
+        // let OGNL report the error the way it always did
+        value = UNRESOLVED;
+      }
+      return value == UNRESOLVED ? OgnlCache.getValue(expression, root) : value;
+    }
+  }
+
+  private interface Node {
+    Object getValue(Object root) throws Exception;
+  }
+
+  private static final class Constant implements Node {
+    private final Object value;
+
+    Constant(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object getValue(Object root) {
+      return value;
+    }
+  }
+
+  private final class Property implements Node {
+    private final Node target;
+    private final String name;
+    private volatile BeanGetter getter;
+
+    Property(Node target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      if (target == null) {
+        if (root instanceof DynamicContext.ContextMap) {
+          return CONTEXT_ACCESSOR.getProperty(null, root, name);
+        }
+        return getProperty(root);
+      }
+      Object value = target.getValue(root);
+      return value == UNRESOLVED ? UNRESOLVED : getProperty(value);
+    }
+
+    private Object getProperty(Object object) throws Exception {
+      if (object == null) {
+        return UNRESOLVED;
+      }
+      if (object instanceof Map) {
+        switch (name) {
+          case "size":
+          case "keys":
+          case "keySet":
+          case "values":
+          case "isEmpty":
+            return UNRESOLVED;
+          default:
+            return ((Map<?, ?>) object).get(name);
+        }
+      }
+      if (object instanceof Collection || object instanceof Iterator || object instanceof Enumeration
+          || object.getClass().isArray()) {
+        return UNRESOLVED;
+      }
+      BeanGetter beanGetter = getter;
+      if (beanGetter == null || beanGetter.type != object.getClass()) {
+        beanGetter = new BeanGetter(reflectorFactory.findForClass(object.getClass()), name);
+        getter = beanGetter;
+      }
+      return beanGetter.invoker == null ? UNRESOLVED : beanGetter.invoker.invoke(object, null);
+    }
+  }
+
+  private static final class BeanGetter {
+    private final Class<?> type;
+    private final Invoker invoker;
+
+    BeanGetter(Reflector reflector, String name) {
+      this.type = reflector.getType();
+      this.invoker = reflector.hasGetter(name) ? reflector.getGetInvoker(name) : null;
+    }
+  }
+
+  private static final class SizeMethod implements Node {
+    private final Node target;
+    private final String name;
+
+    SizeMethod(Node target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      Object value = target.getValue(root);
+      if ("size".equals(name)) {
+        if (value instanceof Collection) {
+          return ((Collection<?>) value).size();
+        }
+        if (value instanceof Map) {
+          return ((Map<?, ?>) value).size();
+        }
+      } else if ("isEmpty".equals(name)) {
+        if (value instanceof Collection) {
+          return ((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+          return ((Map<?, ?>) value).isEmpty();
+        }
+        if (value instanceof String) {
+          return ((String) value).isEmpty();
+        }
+      } else if (value instanceof CharSequence) {
+        return ((CharSequence) value).length();
+      }
+      return UNRESOLVED;
+    }
+  }
+
+  private static final class Not implements Node {
+    private final Node operand;
+
+    Not(Node operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      Object value = operand.getValue(root);
+      if (value == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      return OgnlOps.booleanValue(value) ? Boolean.FALSE : Boolean.TRUE;
+    }
+  }
+
+  private static final class Logical implements Node {
+    private final Node[] operands;
+    private final boolean or;
+
+    Logical(List<Node> operands, boolean or) {
+      this.operands = operands.toArray(new Node[0]);
+      this.or = or;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      // like OGNL, returns the last operand evaluated rather than a Boolean
+      Object value = null;
+      for (Node operand : operands) {
+        value = operand.getValue(root);
+        if (value == UNRESOLVED || OgnlOps.booleanValue(value) == or) {
+          break;
+        }
+      }
+      return value;
+    }
+  }
+
+  private static final class Comparison implements Node {
+    private final String operator;
+    private final Node left;
+    private final Node right;
+
+    Comparison(String operator, Node left, Node right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object getValue(Object root) throws Exception {
+      Object v1 = left.getValue(root);
+      if (v1 == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      Object v2 = right.getValue(root);
+      if (v2 == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      boolean result;
+      switch (operator) {
+        case "==":
+          result = OgnlOps.equal(v1, v2);
+          break;
+        case "!=":
+          result = !OgnlOps.equal(v1, v2);
+          break;
+        case "<":
+          result = OgnlOps.less(v1, v2);
+          break;
+        case ">":
+          result = OgnlOps.greater(v1, v2);
+          break;
+        case "<=":
+          result = !OgnlOps.greater(v1, v2);
+          break;
+        default:
+          result = !OgnlOps.less(v1, v2);
+          break;
+      }
+      return result ? Boolean.TRUE : Boolean.FALSE;
+    }
+  }
+
+  private static final class UnsupportedExpressionException extends RuntimeException {
+    private static final long serialVersionUID = -3578374616727374522L;
+
+    UnsupportedExpressionException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private final class Parser {
+    private final List<Object> tokens = new ArrayList<>();
+    private int position;
+
+    Parser(String expression) {
+      tokenize(expression);
+    }
+
+    Node parse() {
+      Node node = or();
+      if (position != tokens.size()) {
+        throw new UnsupportedExpressionException();
+      }
+      return node;
+    }
+
+    private Node or() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(and());
+      while (accept("or") || accept("||")) {
+        operands.add(and());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Logical(operands, true);
+    }
+
+    private Node and() {
+      List<Node> operands = new ArrayList<>();
+      operands.add(equality());
+      while (accept("and") || accept("&&")) {
+        operands.add(equality());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Logical(operands, false);
+    }
+
+    private Node equality() {
+      Node node = relational();
+      while (true) {
+        if (accept("==") || accept("eq")) {
+          node = new Comparison("==", node, relational());
+        } else if (accept("!=") || accept("neq")) {
+          node = new Comparison("!=", node, relational());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node relational() {
+      Node node = unary();
+      while (true) {
+        if (accept("<") || accept("lt")) {
+          node = new Comparison("<", node, unary());
+        } else if (accept(">") || accept("gt")) {
+          node = new Comparison(">", node, unary());
+        } else if (accept("<=") || accept("lte")) {
+          node = new Comparison("<=", node, unary());
+        } else if (accept(">=") || accept("gte")) {
+          node = new Comparison(">=", node, unary());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node unary() {
+      if (accept("!") || accept("not")) {
+        return new Not(unary());
+      }
+      return primary();
+    }
+
+    private Node primary() {
+      Object token = next();
+      if (token instanceof Literal) {
+        return new Constant(((Literal) token).value);
+      }
+      if ("(".equals(token)) {
+        Node node = or();
+        expect(")");
+        return node;
+      }
+      if ("null".equals(token)) {
+        return new Constant(null);
+      }
+      if ("true".equals(token)) {
+        return new Constant(Boolean.TRUE);
+      }
+      if ("false".equals(token)) {
+        return new Constant(Boolean.FALSE);
+      }
+      Node node = new Property(null, identifier(token));
+      while (accept(".")) {
+        String name = identifier(next());
+        if (accept("(")) {
+          expect(")");
+          if (!"size".equals(name) && !"isEmpty".equals(name) && !"length".equals(name)) {
+            throw new UnsupportedExpressionException();
+          }
+          node = new SizeMethod(node, name);
+        } else {
+          node = new Property(node, name);
+        }
+      }
+      return node;
+    }
+
+    private String identifier(Object token) {
+      if (!(token instanceof String) || !Character.isJavaIdentifierStart(((String) token).charAt(0))) {
+        throw new UnsupportedExpressionException();
+      }
+      switch ((String) token) {
+        case "and": case "or": case "not": case "eq": case "neq": case "lt": case "gt": case "lte": case "gte":
+        case "in": case "instanceof": case "new": case "this": case "null": case "true": case "false":
+        case "bor": case "xor": case "band": case "shl": case "shr": case "ushr":
+          throw new UnsupportedExpressionException();
+        default:
+          return (String) token;
+      }
+    }
+
+    private Object next() {
+      if (position == tokens.size()) {
+        throw new UnsupportedExpressionException();
+      }
+      return tokens.get(position++);
+    }
+
+    private boolean accept(String token) {
+      if (position < tokens.size() && token.equals(tokens.get(position))) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(String token) {
+      if (!accept(token)) {
+        throw new UnsupportedExpressionException();
+      }
+    }
+
+    private void tokenize(String expression) {
+      int length = expression.length();
+      int i = 0;
+      while (i < length) {
+        char c = expression.charAt(i);
+        if (Character.isWhitespace(c)) {
+          i++;
+        } else if (Character.isJavaIdentifierStart(c)) {
+          int start = i;
+          while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+            i++;
+          }
+          tokens.add(expression.substring(start, i));
+        } else if (c >= '0' && c <= '9') {
+          i = number(expression, i);
+        } else if (c == '\'' || c == '"') {
+          int end = expression.indexOf(c, i + 1);
+          if (end < 0) {
+            throw new UnsupportedExpressionException();
+          }
+          String text = expression.substring(i + 1, end);
+          if (text.indexOf('\\') >= 0) {
+            throw new UnsupportedExpressionException();
+          }
+          // OGNL reads a single character between single quotes as a Character
+          tokens.add(new Literal(c == '\'' && text.length() == 1 ? (Object) text.charAt(0) : text));
+          i = end + 1;
+        } else {
+          String operator = expression.startsWith("==", i) || expression.startsWith("!=", i)
+              || expression.startsWith("<=", i) || expression.startsWith(">=", i)
+              || expression.startsWith("&&", i) || expression.startsWith("||", i)
+              ? expression.substring(i, i + 2) : String.valueOf(c);
+          if (operator.length() == 1 && "<>!().".indexOf(c) < 0) {
+            throw new UnsupportedExpressionException();
+          }
+          tokens.add(operator);
+          i += operator.length();
+        }
+      }
+    }
+
+    private int number(String expression, int start) {
+      int length = expression.length();
+      int i = start;
+      while (i < length && Character.isDigit(expression.charAt(i))) {
+        i++;
+      }
+      boolean decimal = i < length && expression.charAt(i) == '.';
+      if (decimal) {
+        int fraction = ++i;
+        while (i < length && Character.isDigit(expression.charAt(i))) {
+          i++;
+        }
+        if (i == fraction) {
+          throw new UnsupportedExpressionException();
+        }
+      }
+      // suffixes, exponents, octal and hexadecimal literals are left to OGNL
+      if (i < length && (Character.isJavaIdentifierPart(expression.charAt(i)) || expression.charAt(i) == '.')
+          || !decimal && i - start > 1 && expression.charAt(start) == '0') {
+        throw new UnsupportedExpressionException();
+      }
+      String text = expression.substring(start, i);
+      try {
+        tokens.add(new Literal(decimal ? (Object) Double.valueOf(text) : (Object) Integer.valueOf(text)));
+      } catch (NumberFormatException e) {
+        throw new UnsupportedExpressionException();
+      }
+      return i;
+    }
+  }
+
+  private static final class Literal {
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -38,10 +38,15 @@ public class DynamicContext {
   }
 
   private final ContextMap bindings;
-  private final StringBuilder sqlBuilder = new StringBuilder();
+  private final StringBuilder sqlBuilder;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, 16);
+  }
+
+  DynamicContext(Configuration configuration, Object parameterObject, int sqlCapacity) {
+    sqlBuilder = new StringBuilder(sqlCapacity);
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       bindings = new ContextMap(metaObject);
@@ -52,6 +57,15 @@ public class DynamicContext {
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
   }
 
+  /**
+   * For the contexts that override every method to forward it to another context: they need neither bindings
+   * nor a buffer of their own.
+   */
+  DynamicContext() {
+    bindings = null;
+    sqlBuilder = null;
+  }
+
   public Map<String, Object> getBindings() {
     return bindings;
   }
@@ -66,7 +80,16 @@ public class DynamicContext {
   }
 
   public String getSql() {
-    return sqlBuilder.toString().trim();
+    // same as toString().trim() with a single copy
+    int start = 0;
+    int end = sqlBuilder.length();
+    while (start < end && sqlBuilder.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && sqlBuilder.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return sqlBuilder.substring(start, end);
   }
 
   public int getUniqueNumber() {
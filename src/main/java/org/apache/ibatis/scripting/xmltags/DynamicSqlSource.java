@@ -15,8 +15,6 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
-import java.util.Map;
-
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.SqlSource;
@@ -29,6 +27,11 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  /**
+   * Longest SQL generated so far, used to size the buffer of the next context. Updated without synchronization:
+   * a stale value only costs a buffer resize.
+   */
+  private int sqlLengthHint;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
@@ -37,16 +40,18 @@ public class DynamicSqlSource implements SqlSource {
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    DynamicContext context = new DynamicContext(configuration, parameterObject, sqlLengthHint + 16);
     rootSqlNode.apply(context);
+    String sql = context.getSql();
+    if (sql.length() > sqlLengthHint) {
+      sqlLengthHint = sql.length();
+    }
     SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
+    SqlSource sqlSource = sqlSourceParser.parse(sql, parameterType, context.getBindings(), configuration.getSqlSourceCache());
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
-    for (Map.Entry<String, Object> entry : context.getBindings().entrySet()) {
-      boundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
-    }
-    return boundSql;
+    // the bindings are not used after this point, so they are handed over instead of copied
+    return new BoundSql(configuration, boundSql.getSql(), boundSql.getParameterMappings(), parameterObject, context.getBindings());
   }
 
 }
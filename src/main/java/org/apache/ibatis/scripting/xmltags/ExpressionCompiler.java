@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+/**
+ * Compiles the expressions found in <code>test</code> and <code>collection</code> attributes of dynamic SQL tags.
+ * The compilation happens once, when the mapper is built.
+ *
+ * @see DefaultExpressionCompiler
+ */
+public interface ExpressionCompiler {
+
+  /**
+   * @param expression the expression as written in the mapper
+   * @return the compiled expression, or <code>null</code> when the expression is not supported
+   *     and must be evaluated by OGNL
+   */
+  CompiledExpression compile(String expression);
+
+}
@@ -28,8 +28,37 @@ import org.apache.ibatis.builder.BuilderException;
  */
 public class ExpressionEvaluator {
 
+  private final ExpressionCompiler compiler;
+
+  public ExpressionEvaluator() {
+    this(new DefaultExpressionCompiler());
+  }
+
+  public ExpressionEvaluator(ExpressionCompiler compiler) {
+    this.compiler = compiler;
+  }
+
+  /**
+   * Compiles an expression for the <code>evaluate*</code> methods taking a {@link CompiledExpression}.
+   * Expressions the compiler does not support are evaluated by OGNL.
+   */
+  public CompiledExpression compile(String expression) {
+    CompiledExpression compiled = compiler.compile(expression);
+    if (compiled == null) {
+      return root -> OgnlCache.getValue(expression, root);
+    }
+    return compiled;
+  }
+
   public boolean evaluateBoolean(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    return toBoolean(OgnlCache.getValue(expression, parameterObject));
+  }
+
+  public boolean evaluateBoolean(CompiledExpression expression, Object parameterObject) {
+    return toBoolean(expression.getValue(parameterObject));
+  }
+
+  private boolean toBoolean(Object value) {
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
@@ -40,7 +69,14 @@ public class ExpressionEvaluator {
   }
 
   public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    return toIterable(expression, OgnlCache.getValue(expression, parameterObject));
+  }
+
+  public Iterable<?> evaluateIterable(String expression, CompiledExpression compiledExpression, Object parameterObject) {
+    return toIterable(expression, compiledExpression.getValue(parameterObject));
+  }
+
+  private Iterable<?> toIterable(String expression, Object value) {
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
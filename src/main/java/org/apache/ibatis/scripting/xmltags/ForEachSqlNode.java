@@ -15,7 +15,11 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.session.Configuration;
@@ -28,35 +32,49 @@ public class ForEachSqlNode implements SqlNode {
 
   private final ExpressionEvaluator evaluator;
   private final String collectionExpression;
+  private final CompiledExpression compiledCollectionExpression;
   private final SqlNode contents;
   private final String open;
   private final String close;
   private final String separator;
   private final String item;
   private final String index;
-  private final Configuration configuration;
+  private final StaticContents staticContents;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
-    this.evaluator = new ExpressionEvaluator();
+    this.evaluator = new ExpressionEvaluator(configuration.getExpressionCompiler());
     this.collectionExpression = collectionExpression;
+    this.compiledCollectionExpression = evaluator.compile(collectionExpression);
     this.contents = contents;
     this.open = open;
     this.close = close;
     this.separator = separator;
     this.index = index;
     this.item = item;
-    this.configuration = configuration;
+    this.staticContents = StaticContents.parse(contents, item, index);
   }
 
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
-    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, compiledCollectionExpression, bindings);
     if (!iterable.iterator().hasNext()) {
       return true;
     }
-    boolean first = true;
     applyOpen(context);
+    if (staticContents != null) {
+      applyStaticContents(context, iterable);
+    } else {
+      applyContents(context, iterable);
+    }
+    applyClose(context);
+    context.getBindings().remove(item);
+    context.getBindings().remove(index);
+    return true;
+  }
+
+  private void applyContents(DynamicContext context, Iterable<?> iterable) {
+    boolean first = true;
     int i = 0;
     for (Object o : iterable) {
       DynamicContext oldContext = context;
@@ -76,17 +94,51 @@ public class ForEachSqlNode implements SqlNode {
         applyIndex(context, i, uniqueNumber);
         applyItem(context, o, uniqueNumber);
       }
-      contents.apply(new FilteredDynamicContext(configuration, context, index, item, uniqueNumber));
+      contents.apply(new FilteredDynamicContext(context, index, item, uniqueNumber));
       if (first) {
         first = !((PrefixedContext) context).isPrefixApplied();
       }
       context = oldContext;
       i++;
     }
-    applyClose(context);
-    context.getBindings().remove(item);
-    context.getBindings().remove(index);
-    return true;
+  }
+
+  /**
+   * Renders each item straight from the pre-parsed contents: same SQL and parameter names as
+   * {@link #applyContents}, without the per item contexts and token parsing.
+   */
+  private void applyStaticContents(DynamicContext context, Iterable<?> iterable) {
+    boolean first = true;
+    int i = 0;
+    for (Object o : iterable) {
+      int uniqueNumber = context.getUniqueNumber();
+      Object indexValue = i;
+      Object itemValue = o;
+      if (o instanceof Map.Entry) {
+        Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+        indexValue = mapEntry.getKey();
+        itemValue = mapEntry.getValue();
+      }
+      if (staticContents.usesIndex) {
+        context.bind(itemizeItem(index, uniqueNumber), indexValue);
+      }
+      if (staticContents.usesItem) {
+        context.bind(itemizeItem(item, uniqueNumber), itemValue);
+      }
+      String prefix = first || separator == null ? "" : separator;
+      boolean prefixApplied = false;
+      for (StaticText text : staticContents.texts) {
+        if (!prefixApplied && !text.blank) {
+          context.appendSql(prefix);
+          prefixApplied = true;
+        }
+        context.appendSql(text.render(uniqueNumber));
+      }
+      if (first) {
+        first = !prefixApplied;
+      }
+      i++;
+    }
   }
 
   private void applyIndex(DynamicContext context, Object o, int i) {
@@ -119,14 +171,124 @@ public class ForEachSqlNode implements SqlNode {
     return ITEM_PREFIX + item + "_" + i;
   }
 
+  /**
+   * Contents made of static text only, split around the <code>#{}</code> placeholders once, when the mapper is built.
+   */
+  private static final class StaticContents {
+    private static final char TOKEN_MARKER = '\u0000';
+    private static final Pattern NAME_PATTERN = Pattern.compile("\\w+");
+
+    private final List<StaticText> texts = new ArrayList<>();
+    private boolean usesItem;
+    private boolean usesIndex;
+
+    static StaticContents parse(SqlNode contents, String item, String index) {
+      if (item == null || !NAME_PATTERN.matcher(item).matches()
+          || index != null && !NAME_PATTERN.matcher(index).matches()) {
+        return null;
+      }
+      List<SqlNode> nodes = new ArrayList<>();
+      if (contents instanceof MixedSqlNode) {
+        nodes.addAll(((MixedSqlNode) contents).getContents());
+      } else {
+        nodes.add(contents);
+      }
+      // same patterns as FilteredDynamicContext
+      Pattern itemPattern = Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+      Pattern indexPattern = index == null ? null : Pattern.compile("^\\s*" + index + "(?![^.,:\\s])");
+      StaticContents staticContents = new StaticContents();
+      for (SqlNode node : nodes) {
+        if (!(node instanceof StaticTextSqlNode)) {
+          return null;
+        }
+        String text = ((StaticTextSqlNode) node).getText();
+        if (text.indexOf(TOKEN_MARKER) >= 0) {
+          return null;
+        }
+        List<String> tokens = new ArrayList<>();
+        String parsed = new GenericTokenParser("#{", "}", content -> {
+          tokens.add(content);
+          return String.valueOf(TOKEN_MARKER);
+        }).parse(text);
+        StaticText staticText = new StaticText(tokens.isEmpty() && parsed.trim().length() == 0);
+        int start = 0;
+        for (String token : tokens) {
+          int end = parsed.indexOf(TOKEN_MARKER, start);
+          staticText.literal(parsed.substring(start, end));
+          start = end + 1;
+          Matcher matcher = itemPattern.matcher(token);
+          if (matcher.find()) {
+            staticText.placeholder(item, token.substring(matcher.end()));
+            staticContents.usesItem = true;
+            continue;
+          }
+          if (indexPattern != null) {
+            matcher = indexPattern.matcher(token);
+            if (matcher.find()) {
+              staticText.placeholder(index, token.substring(matcher.end()));
+              staticContents.usesIndex = true;
+              continue;
+            }
+          }
+          staticText.literal("#{" + token + "}");
+        }
+        staticText.literal(parsed.substring(start));
+        staticContents.texts.add(staticText);
+      }
+      return staticContents;
+    }
+  }
+
+  private static final class StaticText {
+    private final boolean blank;
+    private final List<String> parts = new ArrayList<>();
+    private final List<Boolean> placeholders = new ArrayList<>();
+    private int length;
+
+    StaticText(boolean blank) {
+      this.blank = blank;
+    }
+
+    void literal(String text) {
+      int last = parts.size() - 1;
+      if (last >= 0 && !placeholders.get(last)) {
+        parts.set(last, parts.get(last) + text);
+      } else {
+        parts.add(text);
+        placeholders.add(false);
+      }
+      length += text.length();
+    }
+
+    void placeholder(String name, String rest) {
+      literal("#{" + ITEM_PREFIX + name + "_");
+      parts.add(rest + "}");
+      placeholders.add(true);
+      length += rest.length() + 4;
+    }
+
+    String render(int uniqueNumber) {
+      if (parts.size() == 1) {
+        return parts.get(0);
+      }
+      StringBuilder sql = new StringBuilder(length);
+      for (int i = 0; i < parts.size(); i++) {
+        if (placeholders.get(i)) {
+          sql.append(uniqueNumber);
+        }
+        sql.append(parts.get(i));
+      }
+      return sql.toString();
+    }
+  }
+
   private static class FilteredDynamicContext extends DynamicContext {
     private final DynamicContext delegate;
     private final int index;
     private final String itemIndex;
     private final String item;
 
-    public FilteredDynamicContext(Configuration configuration,DynamicContext delegate, String itemIndex, String item, int i) {
-      super(configuration, null);
+    public FilteredDynamicContext(DynamicContext delegate, String itemIndex, String item, int i) {
       this.delegate = delegate;
       this.index = i;
       this.itemIndex = itemIndex;
@@ -175,7 +337,6 @@ public class ForEachSqlNode implements SqlNode {
     private boolean prefixApplied;
 
     public PrefixedContext(DynamicContext delegate, String prefix) {
-      super(configuration, null);
       this.delegate = delegate;
       this.prefix = prefix;
       this.prefixApplied = false;
@@ -15,18 +15,28 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import org.apache.ibatis.session.Configuration;
+
 /**
  * @author Clinton Begin
  */
 public class IfSqlNode implements SqlNode {
   private final ExpressionEvaluator evaluator;
-  private final String test;
+  private final CompiledExpression test;
   private final SqlNode contents;
 
   public IfSqlNode(SqlNode contents, String test) {
-    this.test = test;
+    this(new ExpressionEvaluator(), contents, test);
+  }
+
+  public IfSqlNode(Configuration configuration, SqlNode contents, String test) {
+    this(new ExpressionEvaluator(configuration.getExpressionCompiler()), contents, test);
+  }
+
+  private IfSqlNode(ExpressionEvaluator evaluator, SqlNode contents, String test) {
+    this.evaluator = evaluator;
+    this.test = evaluator.compile(test);
     this.contents = contents;
-    this.evaluator = new ExpressionEvaluator();
   }
 
   @Override
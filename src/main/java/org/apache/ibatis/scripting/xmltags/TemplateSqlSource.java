@@ -0,0 +1,331 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.session.Configuration;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * A dynamic SQL source for scripts made of static text and if, choose, where, set and trim elements.
+ * <p>
+ * The generated SQL of such a script only depends on which tests pass. Each execution evaluates the tests into a bit
+ * set and reuses the SQL and parameter mappings rendered the first time that combination was seen, so no SQL is
+ * built or parsed after warm up.
+ *
+ * @see CompiledXMLLanguageDriver
+ */
+public class TemplateSqlSource implements SqlSource {
+
+  private static final String OUTCOMES_KEY = "_outcomes";
+  private static final int MAX_TEMPLATES = 256;
+
+  private final Configuration configuration;
+  private final SqlNode rootSqlNode;
+  private final Branch[] branches;
+  private final ExpressionEvaluator evaluator;
+  private final ConcurrentMap<TemplateKey, Template> templates = new ConcurrentHashMap<>();
+
+  TemplateSqlSource(Configuration configuration, SqlNode rootSqlNode, Branch[] branches) {
+    this.configuration = configuration;
+    this.rootSqlNode = rootSqlNode;
+    this.branches = branches;
+    this.evaluator = new ExpressionEvaluator(configuration.getExpressionCompiler());
+  }
+
+  /**
+   * Compiles a script.
+   *
+   * @return the compiled source, or <code>null</code> when the script uses elements that need a
+   *         {@link DynamicSqlSource} (foreach, bind, ${} substitutions or context parameters)
+   */
+  public static TemplateSqlSource compile(Configuration configuration, XNode script) {
+    TemplateCompiler compiler = new TemplateCompiler(configuration);
+    List<Branch> branches = new ArrayList<>();
+    SqlNode rootSqlNode = compiler.parse(script, branches);
+    if (!compiler.compilable || XMLScriptBuilder.CONTEXT_PARAMETER.matcher(compiler.staticText).find()) {
+      return null;
+    }
+    return new TemplateSqlSource(configuration, rootSqlNode, branches.toArray(new Branch[0]));
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    Map<String, Object> bindings = context.getBindings();
+    long outcomes = evaluate(branches, bindings, 0L);
+    Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
+    TemplateKey key = new TemplateKey(outcomes, parameterType);
+    Template template = templates.get(key);
+    if (template == null) {
+      template = render(outcomes, parameterType);
+      if (templates.size() < MAX_TEMPLATES) {
+        templates.putIfAbsent(key, template);
+      }
+    }
+    return new BoundSql(configuration, template.sql, new ArrayList<>(template.parameterMappings), parameterObject, bindings);
+  }
+
+  private long evaluate(Branch[] branches, Object bindings, long outcomes) {
+    for (Branch branch : branches) {
+      outcomes = branch.evaluate(evaluator, bindings, outcomes);
+    }
+    return outcomes;
+  }
+
+  private Template render(long outcomes, Class<?> parameterType) {
+    DynamicContext context = new DynamicContext(configuration, null);
+    context.bind(OUTCOMES_KEY, outcomes);
+    rootSqlNode.apply(context);
+    // the runtime bindings only hold the context parameters, which compiled scripts never reference
+    SqlSource sqlSource = new SqlSourceBuilder(configuration).parse(context.getSql(), parameterType, new HashMap<>());
+    BoundSql boundSql = sqlSource.getBoundSql(null);
+    return new Template(boundSql.getSql(), boundSql.getParameterMappings());
+  }
+
+  private static final class Template {
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+
+    Template(String sql, List<ParameterMapping> parameterMappings) {
+      this.sql = sql;
+      this.parameterMappings = parameterMappings;
+    }
+  }
+
+  private static final class TemplateKey {
+    private final long outcomes;
+    private final Class<?> parameterType;
+
+    TemplateKey(long outcomes, Class<?> parameterType) {
+      this.outcomes = outcomes;
+      this.parameterType = parameterType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof TemplateKey)) {
+        return false;
+      }
+      TemplateKey other = (TemplateKey) o;
+      return outcomes == other.outcomes && parameterType == other.parameterType;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(outcomes) + parameterType.hashCode();
+    }
+  }
+
+  /**
+   * A test, or a choice between tests, that sets the bits of the tests that pass.
+   */
+  interface Branch {
+    long evaluate(ExpressionEvaluator evaluator, Object bindings, long outcomes);
+  }
+
+  static final class Test implements Branch {
+    private final long bit;
+    private final CompiledExpression expression;
+    private final Branch[] nested;
+
+    Test(long bit, CompiledExpression expression, Branch[] nested) {
+      this.bit = bit;
+      this.expression = expression;
+      this.nested = nested;
+    }
+
+    boolean passes(ExpressionEvaluator evaluator, Object bindings) {
+      return evaluator.evaluateBoolean(expression, bindings);
+    }
+
+    long enter(ExpressionEvaluator evaluator, Object bindings, long outcomes) {
+      // tests inside a branch are only evaluated when the branch is rendered, as IfSqlNode does
+      outcomes |= bit;
+      for (Branch branch : nested) {
+        outcomes = branch.evaluate(evaluator, bindings, outcomes);
+      }
+      return outcomes;
+    }
+
+    @Override
+    public long evaluate(ExpressionEvaluator evaluator, Object bindings, long outcomes) {
+      return passes(evaluator, bindings) ? enter(evaluator, bindings, outcomes) : outcomes;
+    }
+  }
+
+  static final class Choice implements Branch {
+    private final Test[] whens;
+    private final Branch[] otherwise;
+
+    Choice(Test[] whens, Branch[] otherwise) {
+      this.whens = whens;
+      this.otherwise = otherwise;
+    }
+
+    @Override
+    public long evaluate(ExpressionEvaluator evaluator, Object bindings, long outcomes) {
+      for (Test when : whens) {
+        if (when.passes(evaluator, bindings)) {
+          return when.enter(evaluator, bindings, outcomes);
+        }
+      }
+      for (Branch branch : otherwise) {
+        outcomes = branch.evaluate(evaluator, bindings, outcomes);
+      }
+      return outcomes;
+    }
+  }
+
+  /**
+   * Renders its contents when the bit of its test is set in the outcomes being rendered.
+   */
+  static final class OutcomeSqlNode implements SqlNode {
+    private final long bit;
+    private final SqlNode contents;
+
+    OutcomeSqlNode(long bit, SqlNode contents) {
+      this.bit = bit;
+      this.contents = contents;
+    }
+
+    @Override
+    public boolean apply(DynamicContext context) {
+      long outcomes = (Long) context.getBindings().get(OUTCOMES_KEY);
+      if ((outcomes & bit) != 0) {
+        contents.apply(context);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Mirrors {@link XMLScriptBuilder} for the elements a template supports.
+   */
+  private static final class TemplateCompiler {
+    private final Configuration configuration;
+    private final ExpressionEvaluator evaluator;
+    private final StringBuilder staticText = new StringBuilder();
+    private boolean compilable = true;
+    private int tests;
+
+    TemplateCompiler(Configuration configuration) {
+      this.configuration = configuration;
+      this.evaluator = new ExpressionEvaluator(configuration.getExpressionCompiler());
+    }
+
+    MixedSqlNode parse(XNode node, List<Branch> branches) {
+      List<SqlNode> contents = new ArrayList<>();
+      NodeList children = node.getNode().getChildNodes();
+      for (int i = 0; i < children.getLength(); i++) {
+        XNode child = node.newXNode(children.item(i));
+        short nodeType = child.getNode().getNodeType();
+        if (nodeType == Node.CDATA_SECTION_NODE || nodeType == Node.TEXT_NODE) {
+          String data = child.getStringBody("");
+          if (new TextSqlNode(data).isDynamic()) {
+            compilable = false;
+          }
+          contents.add(new StaticTextSqlNode(data));
+          staticText.append(data);
+        } else if (nodeType == Node.ELEMENT_NODE) {
+          String nodeName = child.getNode().getNodeName();
+          switch (nodeName) {
+            case "trim":
+              contents.add(new TrimSqlNode(configuration, parse(child, branches), child.getStringAttribute("prefix"),
+                  child.getStringAttribute("prefixOverrides"), child.getStringAttribute("suffix"),
+                  child.getStringAttribute("suffixOverrides")));
+              break;
+            case "where":
+              contents.add(new WhereSqlNode(configuration, parse(child, branches)));
+              break;
+            case "set":
+              contents.add(new SetSqlNode(configuration, parse(child, branches)));
+              break;
+            case "if":
+            case "when":
+              List<Branch> nested = new ArrayList<>();
+              long bit = nextBit();
+              contents.add(new OutcomeSqlNode(bit, parse(child, nested)));
+              branches.add(test(bit, child, nested));
+              break;
+            case "choose":
+              contents.add(parseChoose(child, branches));
+              break;
+            case "otherwise":
+              contents.add(parse(child, branches));
+              break;
+            default:
+              compilable = false;
+          }
+        }
+      }
+      return new MixedSqlNode(contents);
+    }
+
+    private SqlNode parseChoose(XNode node, List<Branch> branches) {
+      List<SqlNode> whenSqlNodes = new ArrayList<>();
+      List<Test> whens = new ArrayList<>();
+      SqlNode defaultSqlNode = null;
+      List<Branch> otherwise = new ArrayList<>();
+      for (XNode child : node.getChildren()) {
+        String nodeName = child.getNode().getNodeName();
+        if ("if".equals(nodeName) || "when".equals(nodeName)) {
+          List<Branch> nested = new ArrayList<>();
+          long bit = nextBit();
+          whenSqlNodes.add(new OutcomeSqlNode(bit, parse(child, nested)));
+          whens.add(test(bit, child, nested));
+        } else if ("otherwise".equals(nodeName)) {
+          compilable &= defaultSqlNode == null;
+          defaultSqlNode = parse(child, otherwise);
+        }
+      }
+      branches.add(new Choice(whens.toArray(new Test[0]), otherwise.toArray(new Branch[0])));
+      return new ChooseSqlNode(whenSqlNodes, defaultSqlNode);
+    }
+
+    private Test test(long bit, XNode node, List<Branch> nested) {
+      String test = node.getStringAttribute("test");
+      if (test == null) {
+        compilable = false;
+        return null;
+      }
+      CompiledExpression expression = evaluator.compile(test);
+      return new Test(bit, expression, nested.toArray(new Branch[0]));
+    }
+
+    private long nextBit() {
+      if (tests == Long.SIZE) {
+        compilable = false;
+        return 0L;
+      }
+      return 1L << tests++;
+    }
+  }
+
+}
@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.parsing.GenericTokenParser;
@@ -28,6 +31,11 @@ import org.apache.ibatis.type.SimpleTypeRegistry;
 public class TextSqlNode implements SqlNode {
   private final String text;
   private final Pattern injectionFilter;
+  /**
+   * The text split around its ${} expressions when the node is built: there is one more literal than expressions.
+   */
+  private final String[] literals;
+  private final String[] expressions;
 
   public TextSqlNode(String text) {
     this(text, null);
@@ -36,74 +44,68 @@ public class TextSqlNode implements SqlNode {
   public TextSqlNode(String text, Pattern injectionFilter) {
     this.text = text;
     this.injectionFilter = injectionFilter;
+    List<String> tokens = new ArrayList<>();
+    char marker = 0;
+    while (text != null && text.indexOf(marker) >= 0) {
+      marker++;
+    }
+    String markerString = String.valueOf(marker);
+    String parsed = createParser(content -> {
+      tokens.add(content);
+      return markerString;
+    }).parse(text);
+    this.expressions = tokens.toArray(new String[0]);
+    this.literals = new String[expressions.length + 1];
+    int start = 0;
+    for (int i = 0; i < expressions.length; i++) {
+      int end = parsed.indexOf(marker, start);
+      literals[i] = parsed.substring(start, end);
+      start = end + 1;
+    }
+    literals[expressions.length] = parsed.substring(start);
   }
   
   public boolean isDynamic() {
-    DynamicCheckerTokenParser checker = new DynamicCheckerTokenParser();
-    GenericTokenParser parser = createParser(checker);
-    parser.parse(text);
-    return checker.isDynamic();
+    return expressions.length > 0;
   }
 
   @Override
   public boolean apply(DynamicContext context) {
-    GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
-    context.appendSql(parser.parse(text));
-    return true;
-  }
-  
-  private GenericTokenParser createParser(TokenHandler handler) {
-    return new GenericTokenParser("${", "}", handler);
-  }
-
-  private static class BindingTokenParser implements TokenHandler {
-
-    private DynamicContext context;
-    private Pattern injectionFilter;
-
-    public BindingTokenParser(DynamicContext context, Pattern injectionFilter) {
-      this.context = context;
-      this.injectionFilter = injectionFilter;
+    if (expressions.length == 0) {
+      context.appendSql(literals[0]);
+      return true;
     }
-
-    @Override
-    public String handleToken(String content) {
-      Object parameter = context.getBindings().get("_parameter");
-      if (parameter == null) {
-        context.getBindings().put("value", null);
-      } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
-        context.getBindings().put("value", parameter);
-      }
-      Object value = OgnlCache.getValue(content, context.getBindings());
-      String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
-      checkInjection(srtValue);
-      return srtValue;
+    Map<String, Object> bindings = context.getBindings();
+    Object parameter = bindings.get("_parameter");
+    if (parameter == null) {
+      bindings.put("value", null);
+    } else if (SimpleTypeRegistry.isSimpleType(parameter.getClass())) {
+      bindings.put("value", parameter);
     }
-
-    private void checkInjection(String value) {
-      if (injectionFilter != null && !injectionFilter.matcher(value).matches()) {
-        throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
-      }
+    StringBuilder sql = new StringBuilder(text.length());
+    for (int i = 0; i < expressions.length; i++) {
+      sql.append(literals[i]).append(evaluate(expressions[i], bindings));
     }
+    sql.append(literals[expressions.length]);
+    context.appendSql(sql.toString());
+    return true;
   }
-  
-  private static class DynamicCheckerTokenParser implements TokenHandler {
-
-    private boolean isDynamic;
-
-    public DynamicCheckerTokenParser() {
-      // Prevent Synthetic Access
-    }
 
-    public boolean isDynamic() {
-      return isDynamic;
-    }
+  private String evaluate(String expression, Map<String, Object> bindings) {
+    Object value = OgnlCache.getValue(expression, bindings);
+    String srtValue = value == null ? "" : String.valueOf(value); // issue #274 return "" instead of "null"
+    checkInjection(srtValue);
+    return srtValue;
+  }
 
-    @Override
-    public String handleToken(String content) {
-      this.isDynamic = true;
-      return null;
+  private void checkInjection(String value) {
+    if (injectionFilter != null && !injectionFilter.matcher(value).matches()) {
+      throw new ScriptingException("Invalid input. Please conform to regex" + injectionFilter.pattern());
     }
   }
   
-}
\ No newline at end of file
+  private static GenericTokenParser createParser(TokenHandler handler) {
+    return new GenericTokenParser("${", "}", handler);
+  }
+
+}
@@ -34,7 +34,6 @@ public class TrimSqlNode implements SqlNode {
   private final String suffix;
   private final List<String> prefixesToOverride;
   private final List<String> suffixesToOverride;
-  private final Configuration configuration;
 
   public TrimSqlNode(Configuration configuration, SqlNode contents, String prefix, String prefixesToOverride, String suffix, String suffixesToOverride) {
     this(configuration, contents, prefix, parseOverrides(prefixesToOverride), suffix, parseOverrides(suffixesToOverride));
@@ -46,7 +45,6 @@ public class TrimSqlNode implements SqlNode {
     this.prefixesToOverride = prefixesToOverride;
     this.suffix = suffix;
     this.suffixesToOverride = suffixesToOverride;
-    this.configuration = configuration;
   }
 
   @Override
@@ -74,9 +72,10 @@ public class TrimSqlNode implements SqlNode {
     private boolean prefixApplied;
     private boolean suffixApplied;
     private StringBuilder sqlBuffer;
+    private int start;
+    private int end;
 
     public FilteredDynamicContext(DynamicContext delegate) {
-      super(configuration, null);
       this.delegate = delegate;
       this.prefixApplied = false;
       this.suffixApplied = false;
@@ -84,13 +83,32 @@ public class TrimSqlNode implements SqlNode {
     }
 
     public void applyAll() {
-      sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
-      String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
-      if (trimmedUppercaseSql.length() > 0) {
-        applyPrefix(sqlBuffer, trimmedUppercaseSql);
-        applySuffix(sqlBuffer, trimmedUppercaseSql);
+      // works on the bounds of the trimmed content instead of trimmed and upper cased copies
+      start = 0;
+      end = sqlBuffer.length();
+      while (start < end && sqlBuffer.charAt(start) <= ' ') {
+        start++;
       }
-      delegate.appendSql(sqlBuffer.toString());
+      while (end > start && sqlBuffer.charAt(end - 1) <= ' ') {
+        end--;
+      }
+      if (start == end) {
+        delegate.appendSql("");
+        return;
+      }
+      int contentStart = start;
+      int contentEnd = end;
+      boolean withPrefix = applyPrefix(contentStart, contentEnd);
+      boolean withSuffix = applySuffix(contentStart, contentEnd);
+      StringBuilder sql = new StringBuilder(end - start + (withPrefix ? prefix.length() + 1 : 0) + (withSuffix ? suffix.length() + 1 : 0));
+      if (withPrefix) {
+        sql.append(prefix).append(' ');
+      }
+      sql.append(sqlBuffer, start, end);
+      if (withSuffix) {
+        sql.append(' ').append(suffix);
+      }
+      delegate.appendSql(sql.toString());
     }
 
     @Override
@@ -118,42 +136,53 @@ public class TrimSqlNode implements SqlNode {
       return delegate.getSql();
     }
 
-    private void applyPrefix(StringBuilder sql, String trimmedUppercaseSql) {
+    private boolean applyPrefix(int contentStart, int contentEnd) {
       if (!prefixApplied) {
         prefixApplied = true;
         if (prefixesToOverride != null) {
           for (String toRemove : prefixesToOverride) {
-            if (trimmedUppercaseSql.startsWith(toRemove)) {
-              sql.delete(0, toRemove.trim().length());
+            if (regionMatchesIgnoreCase(contentStart, contentEnd, contentStart, toRemove)) {
+              start += toRemove.trim().length();
               break;
             }
           }
         }
-        if (prefix != null) {
-          sql.insert(0, " ");
-          sql.insert(0, prefix);
-        }
+        return prefix != null;
       }
+      return false;
     }
 
-    private void applySuffix(StringBuilder sql, String trimmedUppercaseSql) {
+    private boolean applySuffix(int contentStart, int contentEnd) {
       if (!suffixApplied) {
         suffixApplied = true;
         if (suffixesToOverride != null) {
           for (String toRemove : suffixesToOverride) {
-            if (trimmedUppercaseSql.endsWith(toRemove) || trimmedUppercaseSql.endsWith(toRemove.trim())) {
-              int start = sql.length() - toRemove.trim().length();
-              int end = sql.length();
-              sql.delete(start, end);
+            String trimmed = toRemove.trim();
+            if (regionMatchesIgnoreCase(contentStart, contentEnd, contentEnd - toRemove.length(), toRemove)
+                || regionMatchesIgnoreCase(contentStart, contentEnd, contentEnd - trimmed.length(), trimmed)) {
+              end = Math.max(start, end - trimmed.length());
               break;
             }
           }
         }
-        if (suffix != null) {
-          sql.append(" ");
-          sql.append(suffix);
+        return suffix != null;
+      }
+      return false;
+    }
+
+    /**
+     * Compares against an override that is already upper cased, as the whole content used to be.
+     */
+    private boolean regionMatchesIgnoreCase(int contentStart, int contentEnd, int offset, String override) {
+      if (offset < contentStart || offset + override.length() > contentEnd) {
+        return false;
+      }
+      for (int i = 0; i < override.length(); i++) {
+        if (Character.toUpperCase(sqlBuffer.charAt(offset + i)) != override.charAt(i)) {
+          return false;
         }
       }
+      return true;
     }
 
   }
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
@@ -34,8 +35,14 @@ import org.w3c.dom.NodeList;
  */
 public class XMLScriptBuilder extends BaseBuilder {
 
+  static final Pattern CONTEXT_PARAMETER = Pattern.compile("#\\{\\s*(" + DynamicContext.PARAMETER_OBJECT_KEY + "|" + DynamicContext.DATABASE_ID_KEY + ")(?![\\w$])");
+
   private final XNode context;
   private boolean isDynamic;
+  private boolean hasDynamicElements;
+  private final StringBuilder staticText = new StringBuilder();
+  private final DefaultExpressionCompiler constantCompiler = new DefaultExpressionCompiler();
+  private final ExpressionEvaluator constantEvaluator = new ExpressionEvaluator(constantCompiler);
   private final Class<?> parameterType;
   private final Map<String, NodeHandler> nodeHandlerMap = new HashMap<>();
 
@@ -65,6 +72,10 @@ public class XMLScriptBuilder extends BaseBuilder {
 
   public SqlSource parseScriptNode() {
     MixedSqlNode rootSqlNode = parseDynamicTags(context);
+    if (hasDynamicElements && !isDynamic && CONTEXT_PARAMETER.matcher(staticText).find()) {
+      // the raw source does not expose the context bindings to #{} parameters
+      isDynamic = true;
+    }
     SqlSource sqlSource = null;
     if (isDynamic) {
       sqlSource = new DynamicSqlSource(configuration, rootSqlNode);
@@ -87,6 +98,7 @@ public class XMLScriptBuilder extends BaseBuilder {
           isDynamic = true;
         } else {
           contents.add(new StaticTextSqlNode(data));
+          staticText.append(data);
         }
       } else if (child.getNode().getNodeType() == Node.ELEMENT_NODE) { // issue #628
         String nodeName = child.getNode().getNodeName();
@@ -95,12 +107,48 @@ public class XMLScriptBuilder extends BaseBuilder {
           throw new BuilderException("Unknown element <" + nodeName + "> in SQL statement.");
         }
         handler.handleNode(child, contents);
-        isDynamic = true;
+        hasDynamicElements = true;
       }
     }
     return new MixedSqlNode(contents);
   }
 
+  /**
+   * Tests that only read literals and the database id have the same value on every execution. When they are the
+   * only dynamic parts of a statement, the statement is rendered once by a {@link RawSqlSource}.
+   *
+   * @return the value of the test, or <code>null</code> when it depends on the parameter
+   */
+  private Boolean evaluateConstantTest(String test) {
+    // only the subset of the default compiler: no method calls or static members that could change between calls
+    CompiledExpression expression = constantCompiler.compile(test);
+    if (expression == null) {
+      return null;
+    }
+    try {
+      return constantEvaluator.evaluateBoolean(expression, new ConstantBindings(configuration.getDatabaseId()));
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static class ConstantBindings extends DynamicContext.ContextMap {
+    private static final long serialVersionUID = 1L;
+
+    ConstantBindings(String databaseId) {
+      super(null);
+      put(DynamicContext.DATABASE_ID_KEY, databaseId);
+    }
+
+    @Override
+    public Object get(Object key) {
+      if (containsKey(key)) {
+        return super.get(key);
+      }
+      throw new IllegalStateException("Not a constant: " + key);
+    }
+  }
+
   private interface NodeHandler {
     void handleNode(XNode nodeToHandle, List<SqlNode> targetContents);
   }
@@ -116,6 +164,7 @@ public class XMLScriptBuilder extends BaseBuilder {
       final String expression = nodeToHandle.getStringAttribute("value");
       final VarDeclSqlNode node = new VarDeclSqlNode(name, expression);
       targetContents.add(node);
+      isDynamic = true;
     }
   }
 
@@ -178,6 +227,7 @@ public class XMLScriptBuilder extends BaseBuilder {
       String separator = nodeToHandle.getStringAttribute("separator");
       ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
       targetContents.add(forEachSqlNode);
+      isDynamic = true;
     }
   }
 
@@ -188,10 +238,18 @@ public class XMLScriptBuilder extends BaseBuilder {
 
     @Override
     public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
+      boolean wasDynamic = isDynamic;
       MixedSqlNode mixedSqlNode = parseDynamicTags(nodeToHandle);
       String test = nodeToHandle.getStringAttribute("test");
-      IfSqlNode ifSqlNode = new IfSqlNode(mixedSqlNode, test);
+      IfSqlNode ifSqlNode = new IfSqlNode(configuration, mixedSqlNode, test);
       targetContents.add(ifSqlNode);
+      Boolean constant = evaluateConstantTest(test);
+      if (constant == null) {
+        isDynamic = true;
+      } else if (!constant) {
+        // the contents are never rendered
+        isDynamic = wasDynamic;
+      }
     }
   }
 
@@ -223,16 +281,26 @@ public class XMLScriptBuilder extends BaseBuilder {
     }
 
     private void handleWhenOtherwiseNodes(XNode chooseSqlNode, List<SqlNode> ifSqlNodes, List<SqlNode> defaultSqlNodes) {
+      boolean wasDynamic = isDynamic;
+      // the first when that is not constantly false decides, or the otherwise when there is none
+      Boolean chosenDynamic = null;
+      Boolean otherwiseDynamic = null;
       List<XNode> children = chooseSqlNode.getChildren();
       for (XNode child : children) {
         String nodeName = child.getNode().getNodeName();
         NodeHandler handler = nodeHandlerMap.get(nodeName);
+        isDynamic = false;
         if (handler instanceof IfHandler) {
           handler.handleNode(child, ifSqlNodes);
+          if (chosenDynamic == null && !Boolean.FALSE.equals(evaluateConstantTest(child.getStringAttribute("test")))) {
+            chosenDynamic = isDynamic;
+          }
         } else if (handler instanceof OtherwiseHandler) {
           handler.handleNode(child, defaultSqlNodes);
+          otherwiseDynamic = isDynamic;
         }
       }
+      isDynamic = wasDynamic || (chosenDynamic != null ? chosenDynamic : Boolean.TRUE.equals(otherwiseDynamic));
     }
 
     private SqlNode getDefaultSqlNode(List<SqlNode> defaultSqlNodes) {
@@ -0,0 +1,333 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Records where the time goes while a {@link Configuration} is built, per configuration file, mapper and scanned
+ * package.
+ * <p>
+ * Enabled by the <code>startupProfilingEnabled</code> setting. The XML configuration builder then logs the report
+ * when it is done; the log level of {@code 'org.apache.ibatis.session.BuildProfiler'} must be set to {@code DEBUG}.
+ * The profiles can also be read from {@link Configuration#getBuildProfiler()}.
+ * <p>
+ * The time of a resource excludes the time of the resources loaded while it was loading, e.g. the mappers of a
+ * scanned package. Measurements are made on the thread building the configuration, except for the work that the
+ * <code>parallelMapperParsing</code> setting moves to worker threads: the parsing of the XML mappers and the
+ * preparation of the scanned mappers. That work is reported apart as the time spent in parallel, as it overlaps the
+ * rest of the build.
+ *
+ * @since 3.5.0
+ */
+public class BuildProfiler {
+
+  private static final Log log = LogFactory.getLog(BuildProfiler.class);
+
+  private static final ThreadLocal<Measurement> currentMeasurement = new ThreadLocal<>();
+
+  /**
+   * The number of measurements in progress on any thread, so that nothing is looked up while none is.
+   */
+  private static final AtomicInteger openMeasurements = new AtomicInteger();
+
+  public enum Kind {
+    CONFIGURATION("configuration"),
+    MAPPER_XML("mapper XML"),
+    MAPPER_CLASS("mapper class"),
+    MAPPER_PACKAGE("mapper package"),
+    TYPE_ALIAS_PACKAGE("type alias package"),
+    TYPE_HANDLER_PACKAGE("type handler package");
+
+    private final String label;
+
+    Kind(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+  }
+
+  private final Map<String, ResourceProfile> profiles = new LinkedHashMap<>();
+
+  /**
+   * Starts measuring a resource on the current thread, or does nothing when <code>profiler</code> is
+   * <code>null</code>. The returned measurement must be closed when the resource is loaded.
+   */
+  public static Measurement start(BuildProfiler profiler, Kind kind, String resource) {
+    return profiler == null ? Measurement.NONE : profiler.start(kind, resource);
+  }
+
+  public Measurement start(Kind kind, String resource) {
+    return start(kind, resource, false);
+  }
+
+  /**
+   * Starts measuring work done for a resource on a worker thread, or does nothing when <code>profiler</code> is
+   * <code>null</code>. Its time is reported apart from the time of the resource on the building thread.
+   */
+  public static Measurement startInParallel(BuildProfiler profiler, Kind kind, String resource) {
+    return profiler == null ? Measurement.NONE : profiler.startInParallel(kind, resource);
+  }
+
+  public Measurement startInParallel(Kind kind, String resource) {
+    return start(kind, resource, true);
+  }
+
+  private Measurement start(Kind kind, String resource, boolean parallel) {
+    ResourceProfile profile;
+    synchronized (profiles) {
+      profile = profiles.computeIfAbsent(kind.name() + ':' + resource, k -> new ResourceProfile(kind, resource));
+    }
+    Measurement measurement = new Measurement(profile, currentMeasurement.get(), parallel);
+    currentMeasurement.set(measurement);
+    openMeasurements.incrementAndGet();
+    return measurement;
+  }
+
+  private static Measurement currentMeasurement() {
+    return openMeasurements.get() == 0 ? null : currentMeasurement.get();
+  }
+
+  /**
+   * Records that a statement was built by the resource being measured on this thread.
+   *
+   * @param startNanos the {@link System#nanoTime()} when building the statement started
+   */
+  public static void statementBuilt(long startNanos) {
+    Measurement measurement = currentMeasurement();
+    if (measurement != null) {
+      measurement.profile.addStatement(System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Records that an element that could not be completed before was tried again.
+   */
+  public static void incompleteElementRetried() {
+    Measurement measurement = currentMeasurement();
+    if (measurement != null) {
+      measurement.profile.addIncompleteElementRetry();
+    }
+  }
+
+  /**
+   * Records that a class was loaded to be examined while scanning a package.
+   */
+  public static void classLoaded() {
+    Measurement measurement = currentMeasurement();
+    if (measurement != null) {
+      measurement.profile.addLoadedClass();
+    }
+  }
+
+  /**
+   * Records that a {@link org.apache.ibatis.reflection.Reflector} was created.
+   */
+  public static void reflectorCreated() {
+    Measurement measurement = currentMeasurement();
+    if (measurement != null) {
+      measurement.profile.addReflector();
+    }
+  }
+
+  /**
+   * @return the profiles, the slowest first
+   */
+  public List<ResourceProfile> getProfiles() {
+    List<ResourceProfile> sorted;
+    synchronized (profiles) {
+      sorted = new ArrayList<>(profiles.values());
+    }
+    sorted.sort(Comparator.comparingLong(ResourceProfile::getNanos).reversed());
+    return sorted;
+  }
+
+  public String report() {
+    List<ResourceProfile> sorted = getProfiles();
+    long totalNanos = 0;
+    long totalParallelNanos = 0;
+    for (ResourceProfile profile : sorted) {
+      totalNanos += profile.getNanos();
+      totalParallelNanos += profile.getParallelNanos();
+    }
+    StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "Configuration built in %.1f ms", totalNanos / 1e6));
+    if (totalParallelNanos > 0) {
+      report.append(String.format(Locale.ROOT, ", plus %.1f ms in parallel", totalParallelNanos / 1e6));
+    }
+    report.append(':');
+    for (ResourceProfile profile : sorted) {
+      report.append(String.format(Locale.ROOT, "%n%10.1f ms  %s %s", profile.getNanos() / 1e6, profile.getKind(), profile.getResource()));
+      if (profile.getParallelNanos() > 0) {
+        report.append(String.format(Locale.ROOT, ", %.1f ms in parallel", profile.getParallelNanos() / 1e6));
+      }
+      if (profile.getStatements() > 0) {
+        report.append(String.format(Locale.ROOT, ", %d statements in %.1f ms", profile.getStatements(), profile.getStatementNanos() / 1e6));
+      }
+      if (profile.getIncompleteElementRetries() > 0) {
+        report.append(", ").append(profile.getIncompleteElementRetries()).append(" incomplete element retries");
+      }
+      if (profile.getLoadedClasses() > 0) {
+        report.append(", ").append(profile.getLoadedClasses()).append(" classes loaded");
+      }
+      if (profile.getReflectors() > 0) {
+        report.append(", ").append(profile.getReflectors()).append(" reflectors");
+      }
+    }
+    return report.toString();
+  }
+
+  public void logReport() {
+    if (log.isDebugEnabled()) {
+      log.debug(report());
+    }
+  }
+
+  public static class Measurement implements AutoCloseable {
+
+    private static final Measurement NONE = new Measurement(null, null, false);
+
+    private final ResourceProfile profile;
+    private final Measurement parent;
+    private final boolean parallel;
+    private final long startNanos;
+    private long childNanos;
+
+    private Measurement(ResourceProfile profile, Measurement parent, boolean parallel) {
+      this.profile = profile;
+      this.parent = parent;
+      this.parallel = parallel;
+      this.startNanos = profile == null ? 0 : System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+      if (profile == null) {
+        return;
+      }
+      long elapsed = System.nanoTime() - startNanos;
+      if (parallel) {
+        profile.addParallelNanos(elapsed - childNanos);
+      } else {
+        profile.addNanos(elapsed - childNanos);
+      }
+      openMeasurements.decrementAndGet();
+      if (parent == null) {
+        currentMeasurement.remove();
+      } else {
+        parent.childNanos += elapsed;
+        currentMeasurement.set(parent);
+      }
+    }
+  }
+
+  public static class ResourceProfile {
+
+    private final Kind kind;
+    private final String resource;
+    private long nanos;
+    private long parallelNanos;
+    private int statements;
+    private long statementNanos;
+    private int incompleteElementRetries;
+    private int loadedClasses;
+    private int reflectors;
+
+    ResourceProfile(Kind kind, String resource) {
+      this.kind = kind;
+      this.resource = resource;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public String getResource() {
+      return resource;
+    }
+
+    /**
+     * @return the time spent loading this resource, without the resources it loaded
+     */
+    public synchronized long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * @return the time spent on this resource by worker threads, which overlaps the time of other resources
+     */
+    public synchronized long getParallelNanos() {
+      return parallelNanos;
+    }
+
+    public synchronized int getStatements() {
+      return statements;
+    }
+
+    public synchronized long getStatementNanos() {
+      return statementNanos;
+    }
+
+    public synchronized int getIncompleteElementRetries() {
+      return incompleteElementRetries;
+    }
+
+    public synchronized int getLoadedClasses() {
+      return loadedClasses;
+    }
+
+    public synchronized int getReflectors() {
+      return reflectors;
+    }
+
+    synchronized void addNanos(long nanos) {
+      this.nanos += nanos;
+    }
+
+    synchronized void addParallelNanos(long nanos) {
+      parallelNanos += nanos;
+    }
+
+    synchronized void addStatement(long nanos) {
+      statements++;
+      statementNanos += nanos;
+    }
+
+    synchronized void addIncompleteElementRetry() {
+      incompleteElementRetries++;
+    }
+
+    synchronized void addLoadedClass() {
+      loadedClasses++;
+    }
+
+    synchronized void addReflector() {
+      reflectors++;
+    }
+  }
+}
@@ -15,8 +15,11 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,12 +28,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
+import org.apache.ibatis.builder.SqlSourceCache;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
@@ -48,6 +56,7 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
@@ -84,7 +93,11 @@ import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
+import org.apache.ibatis.scripting.defaults.ParameterBindingPlanCache;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.CompiledXMLLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.DefaultExpressionCompiler;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
@@ -112,6 +125,9 @@ public class Configuration {
   protected boolean callSettersOnNulls;
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
+  protected boolean parallelMapperParsing;
+  protected boolean lazyStatementBuilding;
+  protected BuildProfiler buildProfiler;
 
   protected String logPrefix;
   protected Class <? extends Log> logImpl;
@@ -132,6 +148,11 @@ public class Configuration {
 
   protected boolean lazyLoadingEnabled = false;
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
+  protected ExpressionCompiler expressionCompiler = new DefaultExpressionCompiler(reflectorFactory);
+  // whether the expression compiler was set, otherwise it follows the reflector factory
+  private boolean customExpressionCompiler;
+  protected SqlSourceCache sqlSourceCache = new SqlSourceCache();
+  protected final ParameterBindingPlanCache parameterBindingPlanCache = new ParameterBindingPlanCache();
 
   protected String databaseId;
   /**
@@ -159,6 +180,19 @@ public class Configuration {
   protected final Set<String> loadedResources = new HashSet<>();
   protected final Map<String, XNode> sqlFragments = new StrictMap<>("XML fragments parsed from previous mappers");
 
+  protected final Map<String, String> lazyStatements = new StrictMap<>("Mapped Statements collection");
+  protected final Map<String, XMLStatementBuilder> lazyStatementBuilders = new ConcurrentHashMap<>();
+  protected final Map<String, MappedStatement> lazyMappedStatements = new ConcurrentHashMap<>();
+  private Thread lazyStatementBuilder;
+
+  /** Whether an incomplete element may be waiting, so that lookups must try to build it first. */
+  private volatile boolean incompleteElements;
+
+  private final Lock mapperReloadLock = new ReentrantLock();
+  private final Lock lazyStatementLock = new ReentrantLock();
+  private volatile Thread mapperReloader;
+  private List<Replacement> replacements;
+
   protected final Collection<XMLStatementBuilder> incompleteStatements = new LinkedList<>();
   protected final Collection<CacheRefResolver> incompleteCacheRefs = new LinkedList<>();
   protected final Collection<ResultMapResolver> incompleteResultMaps = new LinkedList<>();
@@ -194,6 +228,7 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("XML", XMLLanguageDriver.class);
     typeAliasRegistry.registerAlias("RAW", RawLanguageDriver.class);
+    typeAliasRegistry.registerAlias("COMPILED_XML", CompiledXMLLanguageDriver.class);
 
     typeAliasRegistry.registerAlias("SLF4J", Slf4jImpl.class);
     typeAliasRegistry.registerAlias("COMMONS_LOGGING", JakartaCommonsLoggingImpl.class);
@@ -312,6 +347,13 @@ public class Configuration {
     return loadedResources.contains(resource);
   }
 
+  /**
+   * @since 3.5.0
+   */
+  public Collection<String> getLoadedResources() {
+    return Collections.unmodifiableCollection(new ArrayList<>(loadedResources));
+  }
+
   public Environment getEnvironment() {
     return environment;
   }
@@ -361,6 +403,108 @@ public class Configuration {
     this.proxyFactory = proxyFactory;
   }
 
+  public ExpressionCompiler getExpressionCompiler() {
+    return expressionCompiler;
+  }
+
+  /**
+   * Sets the compiler used for the <code>test</code> and <code>collection</code> expressions of dynamic SQL.
+   * Expressions it does not compile are evaluated by OGNL.
+   *
+   * @since 3.5.0
+   */
+  public void setExpressionCompiler(ExpressionCompiler expressionCompiler) {
+    this.customExpressionCompiler = expressionCompiler != null;
+    this.expressionCompiler = expressionCompiler != null ? expressionCompiler : new DefaultExpressionCompiler(reflectorFactory);
+  }
+
+  public SqlSourceCache getSqlSourceCache() {
+    return sqlSourceCache;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public ParameterBindingPlanCache getParameterBindingPlanCache() {
+    return parameterBindingPlanCache;
+  }
+
+  public int getSqlSourceCacheSize() {
+    return sqlSourceCache.getMaxEntries();
+  }
+
+  /**
+   * Sets how many parsed dynamic SQL strings are kept. 0 disables the cache.
+   *
+   * @since 3.5.0
+   */
+  public void setSqlSourceCacheSize(int sqlSourceCacheSize) {
+    this.sqlSourceCache = new SqlSourceCache(sqlSourceCacheSize, SqlSourceCache.DEFAULT_MAX_SQL_LENGTH);
+  }
+
+  public boolean isParallelMapperParsing() {
+    return parallelMapperParsing;
+  }
+
+  /**
+   * Sets whether the XML mapper files, and the annotated mappers of a scanned package, are read and parsed in parallel
+   * before being built one at a time.
+   *
+   * @since 3.5.0
+   */
+  public void setParallelMapperParsing(boolean parallelMapperParsing) {
+    this.parallelMapperParsing = parallelMapperParsing;
+  }
+
+  public boolean isLazyStatementBuilding() {
+    return lazyStatementBuilding;
+  }
+
+  /**
+   * Sets whether the statements of XML mappers are only built the first time they are asked for.
+   *
+   * @since 3.5.0
+   */
+  public void setLazyStatementBuilding(boolean lazyStatementBuilding) {
+    this.lazyStatementBuilding = lazyStatementBuilding;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public boolean isStartupProfilingEnabled() {
+    return buildProfiler != null;
+  }
+
+  /**
+   * Records per resource timings while this configuration is built.
+   *
+   * @see BuildProfiler
+   * @since 3.5.0
+   */
+  public void setStartupProfilingEnabled(boolean startupProfilingEnabled) {
+    if (!startupProfilingEnabled) {
+      buildProfiler = null;
+    } else if (buildProfiler == null) {
+      buildProfiler = new BuildProfiler();
+    }
+  }
+
+  /**
+   * @return the profiler recording how this configuration is built, or <code>null</code> when profiling is disabled
+   * @since 3.5.0
+   */
+  public BuildProfiler getBuildProfiler() {
+    return buildProfiler;
+  }
+
+  /**
+   * @since 3.5.0
+   */
+  public void setBuildProfiler(BuildProfiler buildProfiler) {
+    this.buildProfiler = buildProfiler;
+  }
+
   public boolean isAggressiveLazyLoading() {
     return aggressiveLazyLoading;
   }
@@ -496,6 +640,9 @@ public class Configuration {
 
   public void setReflectorFactory(ReflectorFactory reflectorFactory) {
 	  this.reflectorFactory = reflectorFactory;
+    if (!customExpressionCompiler) {
+      this.expressionCompiler = new DefaultExpressionCompiler(reflectorFactory);
+    }
   }
 
   public ObjectFactory getObjectFactory() {
@@ -588,6 +735,7 @@ public class Configuration {
   }
 
   public void addKeyGenerator(String id, KeyGenerator keyGenerator) {
+    prepareReplacement(keyGenerators, id);
     keyGenerators.put(id, keyGenerator);
   }
 
@@ -608,6 +756,7 @@ public class Configuration {
   }
 
   public void addCache(Cache cache) {
+    prepareReplacement(caches, cache.getId());
     caches.put(cache.getId(), cache);
   }
 
@@ -628,6 +777,7 @@ public class Configuration {
   }
 
   public void addResultMap(ResultMap rm) {
+    prepareReplacement(resultMaps, rm.getId());
     resultMaps.put(rm.getId(), rm);
     checkLocallyForDiscriminatedNestedResultMaps(rm);
     checkGloballyForDiscriminatedNestedResultMaps(rm);
@@ -650,6 +800,7 @@ public class Configuration {
   }
 
   public void addParameterMap(ParameterMap pm) {
+    prepareReplacement(parameterMaps, pm.getId());
     parameterMaps.put(pm.getId(), pm);
   }
 
@@ -670,17 +821,261 @@ public class Configuration {
   }
 
   public void addMappedStatement(MappedStatement ms) {
+    if (lazyStatementBuilder == Thread.currentThread()) {
+      // statements built on demand are published without modifying the registry read by other threads
+      if (mappedStatements.containsKey(ms.getId()) || lazyMappedStatements.putIfAbsent(ms.getId(), ms) != null) {
+        throw new IllegalArgumentException("Mapped Statements collection already contains value for " + ms.getId());
+      }
+      return;
+    }
+    if (lazyStatements.containsKey(ms.getId())) {
+      // e.g. an annotated method with the id of a statement of its XML mapper
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for " + ms.getId());
+    }
+    prepareReplacement(mappedStatements, ms.getId());
     mappedStatements.put(ms.getId(), ms);
   }
 
   public Collection<String> getMappedStatementNames() {
     buildAllStatements();
-    return mappedStatements.keySet();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.keySet();
+    }
+    buildAllLazyStatements();
+    Set<String> names = new HashSet<>(mappedStatements.keySet());
+    names.addAll(lazyStatements.keySet());
+    names.addAll(lazyMappedStatements.keySet());
+    return names;
   }
 
   public Collection<MappedStatement> getMappedStatements() {
     buildAllStatements();
-    return mappedStatements.values();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.values();
+    }
+    buildAllLazyStatements();
+    List<MappedStatement> statements = new ArrayList<>(mappedStatements.values());
+    statements.addAll(lazyMappedStatements.values());
+    return statements;
+  }
+
+  /**
+   * Registers a statement that is built the first time it is asked for.
+   *
+   * @since 3.5.0
+   */
+  public void addLazyStatement(String id, XMLStatementBuilder statementBuilder) {
+    if (mappedStatements.containsKey(id)) {
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for " + id);
+    }
+    prepareReplacement(lazyStatements, id);
+    prepareReplacement(lazyStatementBuilders, id);
+    lazyStatements.put(id, id);
+    lazyStatementBuilders.put(id, statementBuilder);
+  }
+
+  /**
+   * Replaces what was loaded from a mapper resource with what <code>loader</code> adds to this configuration.
+   * <p>
+   * The statements of the resource and the SQL fragments of its namespace are removed first. The result maps, parameter
+   * maps and key generators added by <code>loader</code> replace those with the same ids. A cache the mapper still
+   * declares keeps its instance, which is cleared, so that namespaces referring to it with cache-ref share it with the
+   * new statements; changes to its settings take effect on the next start.
+   * <p>
+   * Other threads keep finding the previous statements, result maps, caches and fragments until the new ones are
+   * published together at the end; lookups of statements built on first use wait for the reload to finish. If loading or
+   * validating the new statements fails, everything is restored and the exception is rethrown. Statements of other
+   * mappers keep the result maps and caches they resolved when they were built.
+   *
+   * @since 3.5.0
+   */
+  public void replaceMapperResource(String resource, String namespace, Runnable loader) {
+    mapperReloadLock.lock();
+    lazyStatementLock.lock();
+    try {
+      List<StrictMap<?>> registries = new ArrayList<>();
+      for (Map<String, ?> map : Arrays.asList(mappedStatements, caches, resultMaps, parameterMaps, keyGenerators,
+          sqlFragments, lazyStatements)) {
+        if (map instanceof StrictMap) {
+          registries.add((StrictMap<?>) map);
+        }
+      }
+      for (StrictMap<?> registry : registries) {
+        registry.hold();
+      }
+      try {
+        reloadMapperResource(resource, namespace, loader);
+      } finally {
+        for (StrictMap<?> registry : registries) {
+          registry.publish();
+        }
+      }
+    } finally {
+      lazyStatementLock.unlock();
+      mapperReloadLock.unlock();
+    }
+    sqlSourceCache.clear();
+    parameterBindingPlanCache.clear();
+    for (Class<?> mapper : mapperRegistry.getMappers()) {
+      if (mapper.getName().equals(namespace)) {
+        mapperRegistry.clearMethodCache(mapper);
+      }
+    }
+  }
+
+  private void reloadMapperResource(String resource, String namespace, Runnable loader) {
+    List<XMLStatementBuilder> pendingStatements = new ArrayList<>(incompleteStatements);
+    List<CacheRefResolver> pendingCacheRefs = new ArrayList<>(incompleteCacheRefs);
+    List<ResultMapResolver> pendingResultMaps = new ArrayList<>(incompleteResultMaps);
+    List<MethodResolver> pendingMethods = new ArrayList<>(incompleteMethods);
+    replacements = new ArrayList<>();
+    mapperReloader = Thread.currentThread();
+    try {
+      removeMapperResource(resource, namespace);
+      loader.run();
+      buildAllStatements();
+    } catch (RuntimeException e) {
+      removeSqlFragments(namespace, false);
+      for (int i = replacements.size() - 1; i >= 0; i--) {
+        replacements.get(i).undo();
+      }
+      restore(incompleteStatements, pendingStatements);
+      restore(incompleteCacheRefs, pendingCacheRefs);
+      restore(incompleteResultMaps, pendingResultMaps);
+      restore(incompleteMethods, pendingMethods);
+      throw e;
+    } finally {
+      mapperReloader = null;
+    }
+    for (Replacement replacement : replacements) {
+      if (replacement.map == caches && replacement.previous != null) {
+        // namespaces referencing the replaced cache must not keep serving results of the old statements
+        ((Cache) replacement.previous).clear();
+      }
+    }
+    replacements = null;
+  }
+
+  private void removeMapperResource(String resource, String namespace) {
+    List<MappedStatement> statements = new ArrayList<>();
+    for (Object value : mappedStatements.values()) {
+      if (value instanceof MappedStatement && resource.equals(((MappedStatement) value).getResource())) {
+        statements.add((MappedStatement) value);
+      }
+    }
+    for (MappedStatement ms : lazyMappedStatements.values()) {
+      if (resource.equals(ms.getResource())) {
+        statements.add(ms);
+      }
+    }
+    for (MappedStatement ms : statements) {
+      removeForReplacement(mappedStatements, ms.getId());
+      removeForReplacement(keyGenerators, ms.getId() + SelectKeyGenerator.SELECT_KEY_SUFFIX);
+      if (ms.getCache() != null && ms.getCache().getId().equals(namespace)) {
+        // the cache was declared by the mapper being replaced
+        removeForReplacement(caches, namespace);
+      }
+    }
+    for (Map.Entry<String, MappedStatement> entry : lazyMappedStatements.entrySet()) {
+      if (resource.equals(entry.getValue().getResource())) {
+        removeForReplacement(lazyMappedStatements, entry.getKey());
+      }
+    }
+    for (String id : new ArrayList<>(lazyStatements.keySet())) {
+      if (id.startsWith(namespace + ".")) {
+        removeForReplacement(lazyStatements, id);
+      }
+    }
+    for (String id : new ArrayList<>(lazyStatementBuilders.keySet())) {
+      if (id.startsWith(namespace + ".")) {
+        removeForReplacement(lazyStatementBuilders, id);
+      }
+    }
+    removeSqlFragments(namespace, true);
+  }
+
+  /**
+   * @return the cache the mapper being reloaded by the current thread declared before, or <code>null</code>
+   * @since 3.5.0
+   */
+  public Cache getReloadedCache(String namespace) {
+    if (mapperReloader == Thread.currentThread()) {
+      for (Replacement replacement : replacements) {
+        if (replacement.map == caches && replacement.key.equals(namespace)) {
+          return (Cache) replacement.previous;
+        }
+      }
+    }
+    return null;
+  }
+
+  private void removeSqlFragments(String namespace, boolean forReplacement) {
+    for (String id : new ArrayList<>(sqlFragments.keySet())) {
+      if (id.startsWith(namespace + ".")) {
+        if (forReplacement) {
+          removeForReplacement(sqlFragments, id);
+        } else {
+          sqlFragments.remove(id);
+        }
+      }
+    }
+  }
+
+  private void prepareReplacement(Map<String, ?> map, String key) {
+    if (mapperReloader != Thread.currentThread()) {
+      return;
+    }
+    for (Replacement replacement : replacements) {
+      if (replacement.map == map && replacement.key.equals(key)) {
+        // added by the mapper being loaded, so it is a duplicate
+        return;
+      }
+    }
+    removeForReplacement(map, key);
+  }
+
+  private void removeForReplacement(Map<String, ?> map, String key) {
+    if (map.containsKey(key)) {
+      replacements.add(new Replacement(map, key, map.remove(key)));
+    } else {
+      replacements.add(new Replacement(map, key, null));
+    }
+  }
+
+  private <T> void restore(Collection<T> collection, List<T> elements) {
+    synchronized (collection) {
+      collection.clear();
+      collection.addAll(elements);
+    }
+    incompleteElements = true;
+  }
+
+  private static class Replacement {
+    private final Map<String, ?> map;
+    private final String key;
+    private final Object previous;
+
+    Replacement(Map<String, ?> map, String key, Object previous) {
+      this.map = map;
+      this.key = key;
+      this.previous = previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    void undo() {
+      map.remove(key);
+      if (previous != null) {
+        ((Map<String, Object>) map).put(key, previous);
+      }
+    }
+  }
+
+  /**
+   * @return the builder of a statement registered with its full id that is not built yet, or <code>null</code>
+   * @since 3.5.0
+   */
+  public XMLStatementBuilder getLazyStatement(String id) {
+    return lazyStatements.containsKey(id) ? lazyStatementBuilders.get(lazyStatements.get(id)) : null;
   }
 
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
@@ -689,6 +1084,7 @@ public class Configuration {
 
   public void addIncompleteStatement(XMLStatementBuilder incompleteStatement) {
     incompleteStatements.add(incompleteStatement);
+    incompleteElements = true;
   }
 
   public Collection<CacheRefResolver> getIncompleteCacheRefs() {
@@ -697,6 +1093,7 @@ public class Configuration {
 
   public void addIncompleteCacheRef(CacheRefResolver incompleteCacheRef) {
     incompleteCacheRefs.add(incompleteCacheRef);
+    incompleteElements = true;
   }
 
   public Collection<ResultMapResolver> getIncompleteResultMaps() {
@@ -705,10 +1102,12 @@ public class Configuration {
 
   public void addIncompleteResultMap(ResultMapResolver resultMapResolver) {
     incompleteResultMaps.add(resultMapResolver);
+    incompleteElements = true;
   }
 
   public void addIncompleteMethod(MethodResolver builder) {
     incompleteMethods.add(builder);
+    incompleteElements = true;
   }
 
   public Collection<MethodResolver> getIncompleteMethods() {
@@ -720,12 +1119,63 @@ public class Configuration {
   }
 
   public MappedStatement getMappedStatement(String id, boolean validateIncompleteStatements) {
-    if (validateIncompleteStatements) {
+    if (validateIncompleteStatements && incompleteElements) {
       buildAllStatements();
     }
+    if (!lazyStatements.isEmpty()) {
+      MappedStatement ms = getLazyMappedStatement(id);
+      if (ms != null) {
+        return ms;
+      }
+    }
     return mappedStatements.get(id);
   }
 
+  private MappedStatement getLazyMappedStatement(String id) {
+    MappedStatement ms = lazyMappedStatements.get(id);
+    if (ms != null || !lazyStatements.containsKey(id)) {
+      return ms;
+    }
+    lazyStatementLock.lock();
+    try {
+      ms = lazyMappedStatements.get(id);
+      if (ms == null) {
+        String statementId = lazyStatements.get(id);
+        ms = lazyMappedStatements.get(statementId);
+        XMLStatementBuilder statementBuilder = lazyStatementBuilders.get(statementId);
+        if (ms == null && statementBuilder != null) {
+          lazyStatementBuilder = Thread.currentThread();
+          try {
+            statementBuilder.parseStatementNode();
+          } finally {
+            lazyStatementBuilder = null;
+          }
+          // the builder holds the statement node and the mapper document, which are not needed any more
+          lazyStatementBuilders.remove(statementId);
+          ms = lazyMappedStatements.get(statementId);
+        }
+        if (ms != null) {
+          lazyMappedStatements.put(id, ms);
+        }
+      }
+    } finally {
+      lazyStatementLock.unlock();
+    }
+    return ms;
+  }
+
+  /*
+   * Builds the statements registered by lazy statement building that have not been asked for yet.
+   */
+  protected void buildAllLazyStatements() {
+    for (String id : new ArrayList<>(lazyStatements.keySet())) {
+      // the short names may be ambiguous, every statement is registered with its full id too
+      if (id.contains(".")) {
+        getLazyMappedStatement(id);
+      }
+    }
+  }
+
   public Map<String, XNode> getSqlFragments() {
     return sqlFragments;
   }
@@ -759,10 +1209,11 @@ public class Configuration {
   }
 
   public boolean hasStatement(String statementName, boolean validateIncompleteStatements) {
-    if (validateIncompleteStatements) {
+    if (validateIncompleteStatements && incompleteElements) {
       buildAllStatements();
     }
-    return mappedStatements.containsKey(statementName);
+    return mappedStatements.containsKey(statementName) || lazyStatements.containsKey(statementName)
+        || lazyMappedStatements.containsKey(statementName);
   }
 
   public void addCacheRef(String namespace, String referencedNamespace) {
@@ -775,26 +1226,45 @@ public class Configuration {
    * statement validation.
    */
   protected void buildAllStatements() {
-    parsePendingResultMaps();
-    if (!incompleteCacheRefs.isEmpty()) {
-      synchronized (incompleteCacheRefs) {
-        incompleteCacheRefs.removeIf(x -> x.resolveCacheRef() != null);
-      }
+    Thread reloader = mapperReloader;
+    if (reloader != null && reloader != Thread.currentThread()) {
+      // the elements of a mapper being reloaded are built by the reloading thread
+      return;
     }
-    if (!incompleteStatements.isEmpty()) {
-      synchronized (incompleteStatements) {
-        incompleteStatements.removeIf(x -> {
-          x.parseStatementNode();
-          return true;
-        });
+    // cleared first, so that an element added meanwhile sets it again
+    incompleteElements = false;
+    try {
+      parsePendingResultMaps();
+      if (!incompleteCacheRefs.isEmpty()) {
+        synchronized (incompleteCacheRefs) {
+          incompleteCacheRefs.removeIf(x -> {
+            BuildProfiler.incompleteElementRetried();
+            return x.resolveCacheRef() != null;
+          });
+        }
       }
-    }
-    if (!incompleteMethods.isEmpty()) {
-      synchronized (incompleteMethods) {
-        incompleteMethods.removeIf(x -> {
-          x.resolve();
-          return true;
-        });
+      if (!incompleteStatements.isEmpty()) {
+        synchronized (incompleteStatements) {
+          incompleteStatements.removeIf(x -> {
+            BuildProfiler.incompleteElementRetried();
+            x.parseStatementNode();
+            return true;
+          });
+        }
+      }
+      if (!incompleteMethods.isEmpty()) {
+        synchronized (incompleteMethods) {
+          incompleteMethods.removeIf(x -> {
+            BuildProfiler.incompleteElementRetried();
+            x.resolve();
+            return true;
+          });
+        }
+      }
+    } finally {
+      if (!incompleteStatements.isEmpty() || !incompleteCacheRefs.isEmpty() || !incompleteResultMaps.isEmpty()
+          || !incompleteMethods.isEmpty()) {
+        incompleteElements = true;
       }
     }
   }
@@ -811,6 +1281,7 @@ public class Configuration {
         Iterator<ResultMapResolver> iterator = incompleteResultMaps.iterator();
         while (iterator.hasNext()) {
           try {
+            BuildProfiler.incompleteElementRetried();
             iterator.next().resolve();
             iterator.remove();
             resolved = true;
@@ -875,7 +1346,17 @@ public class Configuration {
 
     private static final long serialVersionUID = -4950446264854982944L;
     private final String name;
+    private final Lock lock = new ReentrantLock();
     private BiFunction<V, V, String> conflictMessageProducer;
+    /**
+     * Copy of the unambiguous entries that answers lookups once the map stops changing; dropped on every change.
+     */
+    private transient volatile Map<String, V> readView;
+    private transient int lookupsSinceChange;
+    /**
+     * Thread changing the map while the read view keeps answering the lookups of the other threads.
+     */
+    private transient volatile Thread holder;
 
     public StrictMap(String name, int initialCapacity, float loadFactor) {
       super(initialCapacity, loadFactor);
@@ -912,23 +1393,267 @@ public class Configuration {
 
     @SuppressWarnings("unchecked")
     public V put(String key, V value) {
-      if (containsKey(key)) {
-        throw new IllegalArgumentException(name + " already contains value for " + key
-            + (conflictMessageProducer == null ? "" : conflictMessageProducer.apply(super.get(key), value)));
-      }
-      if (key.contains(".")) {
-        final String shortKey = getShortName(key);
-        if (super.get(shortKey) == null) {
-          super.put(shortKey, value);
-        } else {
-          super.put(shortKey, (V) new Ambiguity(shortKey));
+      lock.lock();
+      try {
+        changed();
+        if (super.containsKey(key)) {
+          throw new IllegalArgumentException(name + " already contains value for " + key
+              + (conflictMessageProducer == null ? "" : conflictMessageProducer.apply(super.get(key), value)));
+        }
+        if (key.contains(".")) {
+          final String shortKey = getShortName(key);
+          if (super.get(shortKey) == null) {
+            super.put(shortKey, value);
+          } else {
+            super.put(shortKey, (V) new Ambiguity(shortKey));
+          }
         }
+        return super.put(key, value);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V remove(Object key) {
+      lock.lock();
+      try {
+        changed();
+        V value = super.remove(key);
+        if (value != null && key instanceof String && ((String) key).contains(".")) {
+          final String shortKey = getShortName((String) key);
+          if (super.get(shortKey) == value) {
+            super.remove(shortKey);
+          }
+        }
+        return value;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+      lock.lock();
+      try {
+        changed();
+        super.putAll(m);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void clear() {
+      lock.lock();
+      try {
+        changed();
+        super.clear();
+      } finally {
+        lock.unlock();
       }
-      return super.put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(String key, V value) {
+      lock.lock();
+      try {
+        changed();
+        return super.putIfAbsent(key, value);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      lock.lock();
+      try {
+        changed();
+        return super.remove(key, value);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean replace(String key, V oldValue, V newValue) {
+      lock.lock();
+      try {
+        changed();
+        return super.replace(key, oldValue, newValue);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V replace(String key, V value) {
+      lock.lock();
+      try {
+        changed();
+        return super.replace(key, value);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
+      lock.lock();
+      try {
+        changed();
+        super.replaceAll(function);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+      lock.lock();
+      try {
+        changed();
+        return super.computeIfAbsent(key, mappingFunction);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+      lock.lock();
+      try {
+        changed();
+        return super.computeIfPresent(key, remappingFunction);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V compute(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+      lock.lock();
+      try {
+        changed();
+        return super.compute(key, remappingFunction);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+      lock.lock();
+      try {
+        changed();
+        return super.merge(key, value, remappingFunction);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    // the views are handed out, e.g. by getMappedStatementNames(), so changes made through them must drop the read view
+
+    @Override
+    public Set<String> keySet() {
+      return new ChangeTrackingSet<>(super.keySet(), Function.identity());
+    }
+
+    @Override
+    public Collection<V> values() {
+      return new ChangeTrackingCollection<>(super.values(), Function.identity());
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+      return new ChangeTrackingSet<>(super.entrySet(), ChangeTrackingEntry::new);
+    }
+
+    private void changed() {
+      if (holder == null) {
+        readView = null;
+        lookupsSinceChange = 0;
+      }
+    }
+
+    /**
+     * Keeps answering the lookups of other threads from the current entries, while the calling thread changes the map,
+     * until {@link #publish()}.
+     */
+    void hold() {
+      lock.lock();
+      try {
+        freeze();
+        holder = Thread.currentThread();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Answers the lookups of all threads from the entries changed since {@link #hold()}, all at once.
+     */
+    void publish() {
+      lock.lock();
+      try {
+        holder = null;
+        readView = null;
+        lookupsSinceChange = 0;
+        freeze();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      Thread holder = this.holder;
+      if (holder != null && holder != Thread.currentThread()) {
+        Map<String, V> view = readView;
+        if (view != null && view.containsKey(key)) {
+          return true;
+        }
+        lock.lock();
+        try {
+          return super.containsKey(key);
+        } finally {
+          lock.unlock();
+        }
+      }
+      return super.containsKey(key);
     }
 
     public V get(Object key) {
-      V value = super.get(key);
+      Thread holder = this.holder;
+      Map<String, V> view = readView;
+      if (holder != null && holder != Thread.currentThread()) {
+        V value = view == null ? null : view.get(key);
+        if (value == null) {
+          lock.lock();
+          try {
+            value = checkValue(key, super.get(key));
+          } finally {
+            lock.unlock();
+          }
+        }
+        return value;
+      }
+      if (view != null && holder == null) {
+        V value = view.get(key);
+        if (value != null) {
+          return value;
+        }
+      }
+      V value = checkValue(key, super.get(key));
+      if (view == null && holder == null && ++lookupsSinceChange > size()) {
+        // the copy costs no more than the lookups made since the last change
+        freeze();
+      }
+      return value;
+    }
+
+    private V checkValue(Object key, V value) {
       if (value == null) {
         throw new IllegalArgumentException(name + " does not contain value for " + key);
       }
@@ -939,11 +1664,140 @@ public class Configuration {
       return value;
     }
 
+    private void freeze() {
+      lock.lock();
+      try {
+        if (readView == null) {
+          Map<String, V> view = new HashMap<>((int) (size() / 0.75f) + 1);
+          for (Map.Entry<String, V> entry : super.entrySet()) {
+            if (!(entry.getValue() instanceof Ambiguity)) {
+              view.put(entry.getKey(), entry.getValue());
+            }
+          }
+          readView = view;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
     private String getShortName(String key) {
       final String[] keyParts = key.split("\\.");
       return keyParts[keyParts.length - 1];
     }
 
+    private class ChangeTrackingCollection<E> extends AbstractCollection<E> {
+      private final Collection<E> collection;
+      private final Function<E, E> elementView;
+
+      ChangeTrackingCollection(Collection<E> collection, Function<E, E> elementView) {
+        this.collection = collection;
+        this.elementView = elementView;
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+        final Iterator<E> iterator = collection.iterator();
+        return new Iterator<E>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public E next() {
+            return elementView.apply(iterator.next());
+          }
+
+          @Override
+          public void remove() {
+            changed();
+            iterator.remove();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return collection.size();
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return collection.contains(o);
+      }
+
+      @Override
+      public boolean remove(Object o) {
+        changed();
+        return collection.remove(o);
+      }
+
+      @Override
+      public void clear() {
+        changed();
+        collection.clear();
+      }
+    }
+
+    private class ChangeTrackingSet<E> extends ChangeTrackingCollection<E> implements Set<E> {
+      private final Set<E> set;
+
+      ChangeTrackingSet(Set<E> set, Function<E, E> elementView) {
+        super(set, elementView);
+        this.set = set;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        return o == this || set.equals(o);
+      }
+
+      @Override
+      public int hashCode() {
+        return set.hashCode();
+      }
+    }
+
+    private class ChangeTrackingEntry implements Map.Entry<String, V> {
+      private final Map.Entry<String, V> entry;
+
+      ChangeTrackingEntry(Map.Entry<String, V> entry) {
+        this.entry = entry;
+      }
+
+      @Override
+      public String getKey() {
+        return entry.getKey();
+      }
+
+      @Override
+      public V getValue() {
+        return entry.getValue();
+      }
+
+      @Override
+      public V setValue(V value) {
+        changed();
+        return entry.setValue(value);
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        return entry.equals(o);
+      }
+
+      @Override
+      public int hashCode() {
+        return entry.hashCode();
+      }
+
+      @Override
+      public String toString() {
+        return entry.toString();
+      }
+    }
+
     protected static class Ambiguity {
       final private String subject;
 
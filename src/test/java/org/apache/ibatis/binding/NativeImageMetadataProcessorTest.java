@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.DefaultVFS;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+public class NativeImageMetadataProcessorTest {
+
+  private static final String[] SOURCES = {
+      "package sample.aot; public class Address { private String city; }",
+      "package sample.aot; public class User { private Address address;"
+          + " public Address getAddress() { return address; } public void setAddress(Address address) { this.address = address; } }",
+      "package sample.aot; public class UserSqlProvider { public String all() { return \"select * from users\"; } }",
+      "package sample.aot; public interface BaseMapper<T> { T find(int id); }",
+      "package sample.aot; @org.apache.ibatis.annotations.Mapper @org.apache.ibatis.annotations.CacheNamespace"
+          + " public interface UserMapper extends BaseMapper<User> {"
+          + " @org.apache.ibatis.annotations.SelectProvider(type = UserSqlProvider.class, method = \"all\")"
+          + " java.util.List<User> all(); }",
+      "package sample.aot; @org.apache.ibatis.annotations.Mapper public interface GenericMapper<T> { java.util.List<T> all(); }" };
+
+  @Test
+  public void shouldWriteTheMetadataOfTheMappers() throws Exception {
+    Path output = compile(SOURCES);
+    Path directory = output.resolve("META-INF/native-image/org.mybatis/mappers");
+
+    String reflection = read(directory.resolve("reflect-config.json"));
+    assertThat(reflection).contains(
+        "{\"name\": \"sample.aot.UserMapper\", \"allPublicMethods\": true}",
+        "{\"name\": \"sample.aot.BaseMapper\", \"allPublicMethods\": true}",
+        "{\"name\": \"sample.aot.UserMapper$MapperImpl\", \"allPublicConstructors\": true, \"allPublicFields\": true}",
+        "{\"name\": \"sample.aot.User\", \"allDeclaredConstructors\": true",
+        "{\"name\": \"sample.aot.Address\", \"allDeclaredConstructors\": true",
+        "{\"name\": \"sample.aot.UserSqlProvider\", \"allDeclaredConstructors\": true",
+        "{\"name\": \"" + PerpetualCache.class.getName() + "\"",
+        "{\"name\": \"" + JdbcTransactionFactory.class.getName() + "\"",
+        "{\"name\": \"" + DefaultVFS.class.getName() + "\"",
+        "{\"name\": \"java.util.ArrayList\"",
+        "{\"name\": \"" + Executor.class.getName() + "\", \"allPublicMethods\": true}");
+    assertThat(reflection).doesNotContain("sample.aot.GenericMapper$MapperImpl", "\"java.lang.String\"");
+
+    String proxies = read(directory.resolve("proxy-config.json"));
+    assertThat(proxies).contains(
+        "{\"interfaces\": [\"sample.aot.GenericMapper\"]}",
+        "{\"interfaces\": [\"" + Executor.class.getName() + "\"]}",
+        "{\"interfaces\": [\"" + StatementHandler.class.getName() + "\"]}",
+        "{\"interfaces\": [\"" + ParameterHandler.class.getName() + "\"]}",
+        "{\"interfaces\": [\"" + ResultSetHandler.class.getName() + "\"]}").doesNotContain("UserMapper", "BaseMapper");
+
+    String resources = read(directory.resolve("resource-config.json"));
+    assertThat(resources).contains(
+        "{\"pattern\": \"\\\\Qsample/aot/UserMapper.xml\\\\E\"}",
+        "{\"pattern\": \"\\\\Qorg/apache/ibatis/builder/xml/mybatis-3-mapper.dtd\\\\E\"}",
+        "{\"pattern\": \"\\\\QMETA-INF/mybatis/class.index\\\\E\"}").doesNotContain("BaseMapper");
+  }
+
+  @Test
+  public void shouldWriteTheMetadataToTheGivenDirectory() throws Exception {
+    Path output = compile(SOURCES, "-A" + NativeImageMetadataProcessor.DIRECTORY_OPTION + "=META-INF/native-image/sample/aot");
+    assertThat(output.resolve("META-INF/native-image/sample/aot/reflect-config.json")).exists();
+    assertThat(output.resolve("META-INF/native-image/org.mybatis/mappers")).doesNotExist();
+  }
+
+  private Path compile(String[] sources, String... options) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    Assumptions.assumeTrue(compiler != null, "A JDK is required to run the annotation processor");
+
+    Path sourceDir = Files.createTempDirectory("native_image_src");
+    Path output = Files.createTempDirectory("native_image");
+    List<File> files = new ArrayList<>();
+    for (String source : sources) {
+      String packageName = source.substring("package ".length(), source.indexOf(';'));
+      String typeName = source.replaceAll("(?s).*?public (?:interface|class) (\\w+).*", "$1");
+      Path file = Files.createDirectories(sourceDir.resolve(packageName.replace('.', '/'))).resolve(typeName + ".java");
+      Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+      files.add(file.toFile());
+    }
+    List<String> arguments = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+        "-d", output.toString(), "-s", output.toString()));
+    arguments.addAll(Arrays.asList(options));
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, arguments, null, units);
+      task.setProcessors(Arrays.asList(new MapperImplementationProcessor(), new NativeImageMetadataProcessor()));
+      assertThat(task.call()).isTrue();
+    }
+    return output;
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+
+}
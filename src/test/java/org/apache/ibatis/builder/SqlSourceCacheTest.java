@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+public class SqlSourceCacheTest {
+
+  private final Configuration configuration = new Configuration();
+  private final SqlSourceBuilder builder = new SqlSourceBuilder(configuration);
+
+  @Test
+  public void shouldReuseMappingsForSameSqlAndParameterType() {
+    SqlSourceCache cache = new SqlSourceCache();
+    Map<String, Object> bindings = bindings("id", 1);
+    BoundSql first = builder.parse("SELECT * FROM BLOG WHERE ID = #{id}", HashMap.class, bindings, cache).getBoundSql(null);
+    BoundSql second = builder.parse("SELECT * FROM BLOG WHERE ID = #{id}", HashMap.class, bindings, cache).getBoundSql(null);
+    assertEquals("SELECT * FROM BLOG WHERE ID = ?", second.getSql());
+    assertSame(first.getParameterMappings().get(0), second.getParameterMappings().get(0));
+    assertNotSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void shouldNotReuseMappingsWhenAdditionalParameterTypeChanges() {
+    SqlSourceCache cache = new SqlSourceCache();
+    String sql = "SELECT * FROM BLOG WHERE ID = #{id}";
+    builder.parse(sql, HashMap.class, bindings("id", 1), cache);
+    SqlSource sqlSource = builder.parse(sql, HashMap.class, bindings("id", 1L), cache);
+    assertEquals(Long.class, sqlSource.getBoundSql(null).getParameterMappings().get(0).getJavaType());
+    assertEquals(0, cache.getHitCount());
+    sqlSource = builder.parse(sql, HashMap.class, bindings("id", 2L), cache);
+    assertEquals(Long.class, sqlSource.getBoundSql(null).getParameterMappings().get(0).getJavaType());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  public void shouldRespectLimits() {
+    SqlSourceCache cache = new SqlSourceCache(2, 40);
+    builder.parse("SELECT * FROM BLOG WHERE ID = #{id} AND NAME = #{name}", HashMap.class, bindings("id", 1), cache);
+    assertEquals(0, cache.getSize());
+    builder.parse("SELECT 1 FROM BLOG WHERE ID = #{id}", HashMap.class, bindings("id", 1), cache);
+    builder.parse("SELECT 2 FROM BLOG WHERE ID = #{id}", HashMap.class, bindings("id", 1), cache);
+    assertEquals(2, cache.getSize());
+    builder.parse("SELECT 3 FROM BLOG WHERE ID = #{id}", HashMap.class, bindings("id", 1), cache);
+    assertEquals(1, cache.getSize());
+    assertEquals(1, cache.getClearCount());
+  }
+
+  @Test
+  public void shouldBeDisabledWithoutEntries() {
+    SqlSourceCache cache = new SqlSourceCache(0, SqlSourceCache.DEFAULT_MAX_SQL_LENGTH);
+    builder.parse("SELECT * FROM BLOG WHERE ID = #{id}", HashMap.class, bindings("id", 1), cache);
+    builder.parse("SELECT * FROM BLOG WHERE ID = #{id}", HashMap.class, bindings("id", 1), cache);
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  private Map<String, Object> bindings(String name, Object value) {
+    Map<String, Object> bindings = new HashMap<>();
+    bindings.put(name, value);
+    return bindings;
+  }
+
+}
@@ -17,6 +17,11 @@ package org.apache.ibatis.builder;
 
 import java.io.InputStream;
 import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.math.RoundingMode;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
@@ -46,6 +51,7 @@ import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.BuildProfiler;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -98,6 +104,10 @@ public class XmlConfigBuilderTest {
       assertNull(config.getLogPrefix());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
+      assertThat(config.getSqlSourceCacheSize()).isEqualTo(SqlSourceCache.DEFAULT_MAX_ENTRIES);
+      assertThat(config.isParallelMapperParsing()).isFalse();
+      assertThat(config.isLazyStatementBuilding()).isFalse();
+      assertThat(config.isStartupProfilingEnabled()).isFalse();
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
     }
   }
@@ -192,6 +202,16 @@ public class XmlConfigBuilderTest {
         assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
         assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
         assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
+        assertThat(config.getSqlSourceCacheSize()).isEqualTo(16);
+        assertThat(config.isParallelMapperParsing()).isTrue();
+        assertThat(config.isLazyStatementBuilding()).isTrue();
+        assertThat(config.isStartupProfilingEnabled()).isTrue();
+        assertThat(config.getBuildProfiler().getProfiles()).extracting(BuildProfiler.ResourceProfile::getResource)
+            .contains("SQL Mapper Configuration", "org.apache.ibatis.domain.jpetstore", "org/apache/ibatis/builder/BlogMapper.xml",
+                "org.apache.ibatis.builder.CachedAuthorMapper", "org.apache.ibatis.builder.mapper");
+        assertThat(config.getBuildProfiler().getProfiles())
+            .filteredOn(profile -> profile.getResource().equals("org/apache/ibatis/builder/BlogMapper.xml"))
+            .hasSize(1).allMatch(profile -> profile.getParallelNanos() > 0);
 
         assertTrue(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor").equals(Author.class));
         assertTrue(config.getTypeAliasRegistry().getTypeAliases().get("blog").equals(Blog.class));
@@ -270,6 +290,57 @@ public class XmlConfigBuilderTest {
       .hasMessageContaining("The setting foo is not known.  Make sure you spelled it correctly (case sensitive).");
   }
 
+  @Test
+  public void parallelMapperParsingReportsTheFirstFailingMapper() {
+    final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"parallelMapperParsing\" value=\"true\"/>\n"
+            + "  </settings>\n"
+            + "  <mappers>\n"
+            + "    <mapper url=\"file:./a/b/c/FirstMapper.xml\"/>\n"
+            + "    <mapper resource=\"a/b/c/SecondMapper.xml\"/>\n"
+            + "  </mappers>\n"
+            + "</configuration>\n";
+
+    XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(MAPPER_CONFIG));
+    when(builder).parse();
+    then(caughtException()).isInstanceOf(BuilderException.class)
+      .hasMessageContaining("FirstMapper.xml");
+  }
+
+  @Test
+  public void parallelMapperParsingFindsTheMappersWithTheContextClassLoader() throws Exception {
+    final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"parallelMapperParsing\" value=\"true\"/>\n"
+            + "  </settings>\n"
+            + "  <mappers>\n"
+            + "    <mapper resource=\"context/ContextMapper.xml\"/>\n"
+            + "  </mappers>\n"
+            + "</configuration>\n";
+    Path directory = Files.createTempDirectory("context_loader");
+    Files.createDirectories(directory.resolve("context"));
+    Files.write(directory.resolve("context/ContextMapper.xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"context\">\n"
+        + "  <select id=\"select\" resultType=\"map\">select 1</select>\n"
+        + "</mapper>\n").getBytes(StandardCharsets.UTF_8));
+
+    Thread thread = Thread.currentThread();
+    ClassLoader classLoader = thread.getContextClassLoader();
+    try (URLClassLoader contextClassLoader = new URLClassLoader(new URL[] { directory.toUri().toURL() }, classLoader)) {
+      thread.setContextClassLoader(contextClassLoader);
+      Configuration config = new XMLConfigBuilder(new StringReader(MAPPER_CONFIG)).parse();
+      assertThat(config.hasStatement("context.select")).isTrue();
+    } finally {
+      thread.setContextClassLoader(classLoader);
+    }
+  }
+
   @Test
   public void unknownJavaTypeOnTypeHandler() {
     final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
@@ -300,4 +371,18 @@ public class XmlConfigBuilderTest {
       .hasMessageContaining("The properties element cannot specify both a URL and a resource based property file reference.  Please specify one or the other.");
   }
 
+  @Test
+  public void shouldRegisterTheMappersOfAPackageInParallelAsSerially() {
+    Configuration serial = new Configuration();
+    serial.addMappers("org.apache.ibatis.domain.blog.mappers");
+    Configuration parallel = new Configuration();
+    parallel.setParallelMapperParsing(true);
+    parallel.addMappers("org.apache.ibatis.domain.blog.mappers");
+
+    assertThat(parallel.getMapperRegistry().getMappers()).containsExactlyInAnyOrderElementsOf(serial.getMapperRegistry().getMappers());
+    assertThat(parallel.getMappedStatementNames()).isNotEmpty().containsExactlyInAnyOrderElementsOf(serial.getMappedStatementNames());
+    assertThat(parallel.getResultMapNames()).containsExactlyInAnyOrderElementsOf(serial.getResultMapNames());
+    assertThat(parallel.getLoadedResources()).containsExactlyInAnyOrderElementsOf(serial.getLoadedResources());
+  }
+
 }
@@ -15,10 +15,18 @@
  */
 package org.apache.ibatis.builder;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperWatcher;
+import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
@@ -63,6 +71,188 @@ public class XmlMapperBuilderTest {
     }
   }
 
+  @Test
+  public void shouldBuildStatementsOnFirstUseWhenLazy() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementBuilding(true);
+    configuration.setDatabaseId("h2");
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"lazy\">\n"
+        + "  <select id=\"selectById\" resultType=\"map\">select * from author where id = #{id}</select>\n"
+        + "  <select id=\"selectBroken\" resultMap=\"missingResultMap\">select * from author</select>\n"
+        + "  <select id=\"selectVendor\" resultType=\"string\" databaseId=\"h2\">select 'h2'</select>\n"
+        + "  <select id=\"selectVendor\" resultType=\"string\">select 'other'</select>\n"
+        + "  <insert id=\"insert\">\n"
+        + "    <selectKey keyProperty=\"id\" resultType=\"int\" order=\"BEFORE\" databaseId=\"h2\">select 1</selectKey>\n"
+        + "    <selectKey keyProperty=\"id\" resultType=\"int\" order=\"BEFORE\">select 2</selectKey>\n"
+        + "    insert into author (id) values (#{id})\n"
+        + "  </insert>\n"
+        + "</mapper>\n";
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, "lazy.xml", configuration.getSqlFragments());
+      builder.parse();
+    }
+
+    assertThat(configuration.hasStatement("lazy.selectById")).isTrue();
+    assertThat(configuration.hasStatement("selectVendor")).isTrue();
+    assertThat(configuration.getLazyStatement("lazy.selectById")).isNotNull();
+    MappedStatement selectById = configuration.getMappedStatement("selectById");
+    assertThat(selectById.getId()).isEqualTo("lazy.selectById");
+    assertThat(configuration.getLazyStatement("lazy.selectById")).isNull();
+    assertThat(configuration.hasStatement("lazy.selectById")).isTrue();
+    assertThat(configuration.getMappedStatement("lazy.selectById")).isSameAs(selectById);
+    assertThat(configuration.getMappedStatement("lazy.selectVendor").getDatabaseId()).isEqualTo("h2");
+    assertThat(configuration.getMappedStatement("lazy.insert").getBoundSql(null).getSql()).contains("insert into author");
+    assertThat(configuration.getMappedStatement("lazy.insert!selectKey").getBoundSql(null).getSql()).isEqualTo("select 1");
+
+    when(configuration).getMappedStatement("lazy.selectBroken");
+    then(caughtException()).isInstanceOf(IncompleteElementException.class);
+    assertThat(configuration.getLazyStatement("lazy.selectBroken")).isNotNull();
+  }
+
+  @Test
+  public void shouldRejectAnAnnotatedStatementWithTheIdOfALazyXmlStatement() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementBuilding(true);
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"" + DuplicatedLazyMapper.class.getName() + "\">\n"
+        + "  <select id=\"selectById\" resultType=\"map\">select * from author where id = #{id}</select>\n"
+        + "</mapper>\n";
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, "duplicated.xml", configuration.getSqlFragments());
+      IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, builder::parse);
+      assertThat(e.getMessage()).contains("already contains value for " + DuplicatedLazyMapper.class.getName() + ".selectById");
+    }
+  }
+
+  public interface DuplicatedLazyMapper {
+    @Select("select * from author where id = #{id}")
+    Map<String, Object> selectById(int id);
+  }
+
+  private static final String RELOADED_MAPPER_V1 = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"reload\">\n"
+      + "  <cache/>\n"
+      + "  <resultMap id=\"authorMap\" type=\"map\"><id column=\"id\" property=\"id\"/></resultMap>\n"
+      + "  <sql id=\"columns\">id</sql>\n"
+      + "  <select id=\"selectAuthor\" resultMap=\"authorMap\">select <include refid=\"columns\"/> from author</select>\n"
+      + "  <select id=\"selectRemoved\" resultType=\"map\">select * from author</select>\n"
+      + "</mapper>\n";
+
+  private static final String RELOADED_MAPPER_V2 = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+      + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+      + "<mapper namespace=\"reload\">\n"
+      + "  <resultMap id=\"authorMap\" type=\"map\"><id column=\"id\" property=\"id\"/></resultMap>\n"
+      + "  <sql id=\"columns\">id, username</sql>\n"
+      + "  <select id=\"selectAuthor\" resultMap=\"authorMap\">select <include refid=\"columns\"/> from author</select>\n"
+      + "  <select id=\"selectAdded\" resultType=\"map\">select * from blog</select>\n"
+      + "</mapper>\n";
+
+  private static void loadMapper(Configuration configuration, String mapper, boolean reload) throws Exception {
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, "reload.xml", configuration.getSqlFragments());
+      if (reload) {
+        builder.reload();
+      } else {
+        builder.parse();
+      }
+    }
+  }
+
+  @Test
+  public void shouldReplaceTheContentOfAReloadedMapper() throws Exception {
+    Configuration configuration = new Configuration();
+    loadMapper(configuration, RELOADED_MAPPER_V1, false);
+    Cache cache = configuration.getCache("reload");
+    cache.putObject("key", "value");
+
+    loadMapper(configuration, RELOADED_MAPPER_V2, true);
+
+    assertThat(configuration.getMappedStatement("selectAuthor").getBoundSql(null).getSql()).contains("id, username");
+    assertThat(configuration.hasStatement("reload.selectRemoved")).isFalse();
+    assertThat(configuration.hasStatement("selectRemoved")).isFalse();
+    assertThat(configuration.getMappedStatement("reload.selectAdded").getCache()).isNull();
+    assertThat(configuration.hasCache("reload")).isFalse();
+    assertThat(cache.getSize()).isZero();
+  }
+
+  @Test
+  public void shouldKeepTheCacheReferredToByOtherNamespacesOnReload() throws Exception {
+    Configuration configuration = new Configuration();
+    loadMapper(configuration, RELOADED_MAPPER_V1, false);
+    String referrer = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"referrer\">\n"
+        + "  <cache-ref namespace=\"reload\"/>\n"
+        + "  <select id=\"selectAuthor\" resultType=\"map\">select * from author</select>\n"
+        + "</mapper>\n";
+    try (InputStream inputStream = new ByteArrayInputStream(referrer.getBytes(StandardCharsets.UTF_8))) {
+      new XMLMapperBuilder(inputStream, configuration, "referrer.xml", configuration.getSqlFragments()).parse();
+    }
+    Cache cache = configuration.getCache("reload");
+    cache.putObject("key", "value");
+
+    loadMapper(configuration, RELOADED_MAPPER_V1.replace("<sql id=\"columns\">id</sql>", "<sql id=\"columns\">id, username</sql>"), true);
+
+    assertThat(configuration.getCache("reload")).isSameAs(cache);
+    assertThat(configuration.getMappedStatement("reload.selectAuthor").getCache()).isSameAs(cache);
+    assertThat(configuration.getMappedStatement("referrer.selectAuthor").getCache()).isSameAs(cache);
+    assertThat(cache.getSize()).isZero();
+  }
+
+  @Test
+  public void shouldKeepAMapperWhenItsReloadFails() throws Exception {
+    Configuration configuration = new Configuration();
+    loadMapper(configuration, RELOADED_MAPPER_V1, false);
+    MappedStatement selectAuthor = configuration.getMappedStatement("reload.selectAuthor");
+    Cache cache = configuration.getCache("reload");
+
+    Assertions.assertThrows(IncompleteElementException.class, () -> loadMapper(configuration,
+        RELOADED_MAPPER_V2.replace("resultMap=\"authorMap\">select", "resultMap=\"missingMap\">select"), true));
+
+    assertThat(configuration.getMappedStatement("reload.selectAuthor")).isSameAs(selectAuthor);
+    assertThat(configuration.getMappedStatement("selectRemoved").getId()).isEqualTo("reload.selectRemoved");
+    assertThat(configuration.hasStatement("reload.selectAdded")).isFalse();
+    assertThat(configuration.getCache("reload")).isSameAs(cache);
+    assertThat(configuration.getSqlFragments().get("reload.columns").getStringBody()).isEqualTo("id");
+
+    loadMapper(configuration, RELOADED_MAPPER_V2, true);
+    assertThat(configuration.hasStatement("reload.selectAdded")).isTrue();
+  }
+
+  @Test
+  public void shouldReportAnIncompleteStatementOnEveryLookup() throws Exception {
+    Configuration configuration = new Configuration();
+    loadMapper(configuration,
+        RELOADED_MAPPER_V1.replace("resultMap=\"authorMap\">select", "resultMap=\"missingMap\">select"), false);
+
+    Assertions.assertThrows(IncompleteElementException.class, () -> configuration.getMappedStatement("reload.selectRemoved"));
+    Assertions.assertThrows(IncompleteElementException.class, () -> configuration.getMappedStatement("reload.selectRemoved"));
+    assertThat(configuration.getMappedStatement("reload.selectRemoved", false).getId()).isEqualTo("reload.selectRemoved");
+  }
+
+  @Test
+  public void shouldReloadAWatchedMapperFile() throws Exception {
+    Configuration configuration = new Configuration();
+    loadMapper(configuration, RELOADED_MAPPER_V1, false);
+    Path file = Files.createTempFile("reload", ".xml");
+    Files.write(file, RELOADED_MAPPER_V1.getBytes(StandardCharsets.UTF_8));
+    try (XMLMapperWatcher watcher = new XMLMapperWatcher(configuration)) {
+      watcher.watch(file, "reload.xml");
+      Files.write(file, RELOADED_MAPPER_V2.getBytes(StandardCharsets.UTF_8));
+      long deadline = System.currentTimeMillis() + 30000;
+      while (!configuration.hasStatement("reload.selectAdded") && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+      }
+    } finally {
+      Files.delete(file);
+    }
+    assertThat(configuration.hasStatement("reload.selectAdded")).isTrue();
+  }
+
   @Test
   public void parseExpression() {
     BaseBuilder builder = new BaseBuilder(new Configuration()){{}};
@@ -0,0 +1,127 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.CompiledXMLLanguageDriver;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.TemplateSqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+public class CompiledXMLLanguageDriverTest {
+
+  private static final String FIND_AUTHOR = "<script>select * from author"
+      + "<where>"
+      + "<if test=\"id != null\">and id = #{id}</if>"
+      + "<if test=\"username != null\">and username = #{username}"
+      + "<if test=\"username.length() > 3\"> and password = #{password}</if>"
+      + "</if>"
+      + "<choose>"
+      + "<when test=\"favouriteSection == null\">and favourite_section is null</when>"
+      + "<when test=\"favouriteSection.name() == 'NEWS'\">and bio = #{bio}</when>"
+      + "<otherwise>and favourite_section = #{favouriteSection}</otherwise>"
+      + "</choose>"
+      + "</where>"
+      + "<trim prefix=\"order by\" prefixOverrides=\",\"><if test=\"email != null\">, email</if></trim>"
+      + "</script>";
+
+  private final Configuration configuration = new Configuration();
+  private final LanguageDriver xmlDriver = new XMLLanguageDriver();
+  private final LanguageDriver compiledDriver = new CompiledXMLLanguageDriver();
+
+  @Test
+  public void shouldRenderTheSameSqlAsTheXmlDriver() {
+    SqlSource expected = xmlDriver.createSqlSource(configuration, FIND_AUTHOR, Author.class);
+    SqlSource actual = compiledDriver.createSqlSource(configuration, FIND_AUTHOR, Author.class);
+    assertTrue(expected instanceof DynamicSqlSource);
+    assertTrue(actual instanceof TemplateSqlSource);
+    List<Author> authors = Arrays.asList(
+        new Author(),
+        new Author(1, "jim", "pwd", "jim@example.com", null, Section.NEWS),
+        new Author(2, "sally", "pwd", null, "bio", Section.NEWS),
+        new Author(3, "sally", "pwd", null, "bio", Section.VIDEOS),
+        new Author(4, "al", null, "al@example.com", null, null));
+    for (int i = 0; i < 2; i++) {
+      for (Author author : authors) {
+        assertBoundSql(expected.getBoundSql(author), actual.getBoundSql(author));
+      }
+    }
+  }
+
+  @Test
+  public void shouldResolveParameterTypesOfEachParameterClass() {
+    String script = "<script>select * from author where 1 = 1<if test=\"id != null\"> and id = #{id}</if></script>";
+    SqlSource expected = xmlDriver.createSqlSource(configuration, script, Object.class);
+    SqlSource actual = compiledDriver.createSqlSource(configuration, script, Object.class);
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", 1);
+    assertBoundSql(expected.getBoundSql(new Author(1)), actual.getBoundSql(new Author(1)));
+    assertBoundSql(expected.getBoundSql(map), actual.getBoundSql(map));
+    assertSame(int.class, actual.getBoundSql(new Author(1)).getParameterMappings().get(0).getJavaType());
+    assertSame(Object.class, actual.getBoundSql(map).getParameterMappings().get(0).getJavaType());
+  }
+
+  @Test
+  public void shouldFallBackToTheXmlDriverSources() {
+    assertTrue(compiledDriver.createSqlSource(configuration,
+        "<script>select * from author <if test=\"true\">where id = #{id}</if></script>", Author.class) instanceof RawSqlSource);
+    assertTrue(compiledDriver.createSqlSource(configuration,
+        "<script>select * from author where id in <foreach collection=\"list\" item=\"id\" open=\"(\" separator=\",\" close=\")\">#{id}</foreach></script>",
+        Object.class) instanceof DynamicSqlSource);
+    assertTrue(compiledDriver.createSqlSource(configuration,
+        "<script>select * from ${table} <if test=\"id != null\">where id = #{id}</if></script>", Author.class) instanceof DynamicSqlSource);
+    assertTrue(compiledDriver.createSqlSource(configuration,
+        "<script>select #{_parameter} <if test=\"_parameter != null\">from dual</if></script>", Object.class) instanceof DynamicSqlSource);
+  }
+
+  @Test
+  public void shouldBeRegisteredAsAnAlias() {
+    assertSame(CompiledXMLLanguageDriver.class, configuration.getTypeAliasRegistry().resolveAlias("COMPILED_XML"));
+  }
+
+  private void assertBoundSql(BoundSql expected, BoundSql actual) {
+    assertEquals(expected.getSql(), actual.getSql());
+    assertEquals(describe(expected.getParameterMappings()), describe(actual.getParameterMappings()));
+  }
+
+  private List<String> describe(List<ParameterMapping> parameterMappings) {
+    List<String> descriptions = new ArrayList<>();
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      descriptions.add(parameterMapping.getProperty() + ":" + parameterMapping.getJavaType().getName()
+          + ":" + parameterMapping.getTypeHandler().getClass().getName());
+    }
+    return descriptions;
+  }
+
+}
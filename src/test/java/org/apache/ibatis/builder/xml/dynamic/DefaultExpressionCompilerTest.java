@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.scripting.xmltags.CompiledExpression;
+import org.apache.ibatis.scripting.xmltags.DefaultExpressionCompiler;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.ExpressionCompiler;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.OgnlCache;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+public class DefaultExpressionCompilerTest {
+
+  private final DefaultExpressionCompiler compiler = new DefaultExpressionCompiler();
+
+  @Test
+  public void shouldReturnSameValuesAsOgnlForBeanParameter() {
+    Author author = new Author(1, "cbegin", null, "cbegin@apache.org", "", Section.NEWS);
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), author).getBindings();
+    assertSameAsOgnl(bindings,
+        "username", "password", "id", "_parameter", "_databaseId", "_parameter.username",
+        "username != null", "username != null and username != ''", "bio == ''", "bio != null && bio.length() > 0",
+        "password == null or password == ''", "id == 1", "id eq 1.0", "id neq 2", "id > 0", "id >= 1", "id < 1",
+        "id lte 0", "not (id > 0)", "!(username == 'cbegin')", "username.isEmpty()", "username.length() == 6",
+        "favouriteSection != null", "username and id", "password or id", "true and null", "false or 'x'");
+  }
+
+  @Test
+  public void shouldReturnSameValuesAsOgnlForMapParameter() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("ids", Arrays.asList(1, 2, 3));
+    parameter.put("empty", Collections.emptyList());
+    parameter.put("name", "ab");
+    parameter.put("nested", Collections.singletonMap("size", 5));
+    parameter.put("author", new Author(2, "jdoe", "pw", null, null, null));
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), parameter).getBindings();
+    assertSameAsOgnl(bindings,
+        "ids", "ids != null and ids.size() > 0", "empty.size() == 0", "empty.isEmpty()", "missing == null",
+        "name == 'ab'", "name == \"ab\"", "nested.size", "nested.size == 5", "nested.size() == 1", "author.id == 2",
+        "author.email == null", "_parameter.name", "author.username.length() >= 4");
+  }
+
+  @Test
+  public void shouldUseTheReflectorFactoryOfTheConfiguration() {
+    Configuration configuration = new Configuration();
+    ReflectorFactory reflectorFactory = spy(new DefaultReflectorFactory());
+    configuration.setReflectorFactory(reflectorFactory);
+    CompiledExpression expression = configuration.getExpressionCompiler().compile("username != null");
+    assertEquals(Boolean.TRUE, expression.getValue(new Author(1, "cbegin", null, null, null, null)));
+    verify(reflectorFactory).findForClass(Author.class);
+
+    ExpressionCompiler custom = new DefaultExpressionCompiler();
+    configuration.setExpressionCompiler(custom);
+    configuration.setReflectorFactory(new DefaultReflectorFactory());
+    assertSame(custom, configuration.getExpressionCompiler());
+  }
+
+  @Test
+  public void shouldSpecializeAccessorsByParameterClass() {
+    CompiledExpression expression = compiler.compile("username != null");
+    assertNotNull(expression);
+    class Other {
+      @SuppressWarnings("unused")
+      private String username;
+    }
+    assertEquals(Boolean.TRUE, expression.getValue(new Author(1, "cbegin", null, null, null, null)));
+    assertEquals(Boolean.FALSE, expression.getValue(new Other()));
+    assertEquals(Boolean.FALSE, expression.getValue(new Author(1, null, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldNotCompileExpressionsOutsideOfTheSupportedSubset() {
+    assertNull(compiler.compile("'%' + name + '%'"));
+    assertNull(compiler.compile("ids[0] == 1"));
+    assertNull(compiler.compile("name.trim() != ''"));
+    assertNull(compiler.compile("id in {1, 2}"));
+    assertNull(compiler.compile("id == 1L"));
+    assertNull(compiler.compile("@java.lang.Math@max(1, 2)"));
+    assertNull(compiler.compile("name == 'it\\'s'"));
+  }
+
+  @Test
+  public void shouldFallBackToOgnlForUnsupportedExpressions() {
+    ExpressionEvaluator evaluator = new ExpressionEvaluator(compiler);
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("name", "  ");
+    assertFalse(evaluator.evaluateBoolean(evaluator.compile("name.trim() != ''"), parameter));
+  }
+
+  @Test
+  public void shouldKeepOgnlCharacterLiterals() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("flag", "Y");
+    CompiledExpression expression = compiler.compile("flag == 'Y'");
+    assertThrows(NumberFormatException.class, () -> OgnlCache.getValue("flag == 'Y'", parameter));
+    assertThrows(NumberFormatException.class, () -> expression.getValue(parameter));
+    assertEquals(Boolean.TRUE, compiler.compile("flag == \"Y\"").getValue(parameter));
+  }
+
+  @Test
+  public void shouldReportErrorsLikeOgnl() {
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("author", null);
+    Map<String, Object> bindings = new DynamicContext(new Configuration(), parameter).getBindings();
+    CompiledExpression expression = compiler.compile("author.username != null");
+    BuilderException e = assertThrows(BuilderException.class, () -> expression.getValue(bindings));
+    assertTrue(e.getMessage().contains("author.username != null"));
+  }
+
+  private void assertSameAsOgnl(Object root, String... expressions) {
+    for (String expression : expressions) {
+      CompiledExpression compiled = compiler.compile(expression);
+      assertNotNull(compiled, expression);
+      assertEquals(OgnlCache.getValue(expression, root), compiled.getValue(root), expression);
+    }
+  }
+
+}
@@ -16,6 +16,8 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -29,6 +31,7 @@ import java.util.Map;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
@@ -36,7 +39,9 @@ import org.apache.ibatis.scripting.xmltags.IfSqlNode;
 import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
 import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -297,6 +302,17 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals(expected, boundSql.getSql());
   }
 
+  @Test
+  public void shouldTrimOverridesRegardlessOfCase() throws Exception {
+    final String expected = "INSERT INTO BLOG (  id, NAME ) VALUES ( ?, ? )";
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("INSERT INTO BLOG"),
+        new TrimSqlNode(new Configuration(), mixedContents(new TextSqlNode("  and id, NAME,  ")), "(", "AND |OR ", ")", ","),
+        new TrimSqlNode(new Configuration(), mixedContents(new TextSqlNode(" ?, ?, ")), "VALUES (", null, ")", ", "));
+    BoundSql boundSql = source.getBoundSql(null);
+    assertEquals(expected, boundSql.getSql());
+  }
+
   @Test
   public void shouldTrimNoSetClause() throws Exception {
     final String expected = "UPDATE BLOG";
@@ -340,6 +356,21 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals(expected, boundSql.getSql());
   }
 
+  @Test
+  public void shouldSubstitutePreParsedExpressionsOnEachExecution() throws Exception {
+    TextSqlNode node = new TextSqlNode("SELECT * FROM BLOG_${suffix} WHERE NAME = '\\${name}' AND ${column} = #{id} ${unclosed");
+    assertTrue(node.isDynamic());
+    assertFalse(new TextSqlNode("SELECT * FROM BLOG WHERE \\${name}").isDynamic());
+    DynamicSqlSource source = createDynamicSqlSource(node);
+    Map<String, Object> parameterObject = new HashMap<String, Object>();
+    parameterObject.put("suffix", 1);
+    parameterObject.put("column", "ID");
+    assertEquals("SELECT * FROM BLOG_1 WHERE NAME = '${name}' AND ID = ? ${unclosed", source.getBoundSql(parameterObject).getSql());
+    parameterObject.put("suffix", 2);
+    parameterObject.put("column", null);
+    assertEquals("SELECT * FROM BLOG_2 WHERE NAME = '${name}' AND  = ? ${unclosed", source.getBoundSql(parameterObject).getSql());
+  }
+
   @Test
   public void shouldSkipForEachWhenCollectionIsEmpty() throws Exception {
     final HashMap<String, Integer[]> parameterObject = new HashMap<String, Integer[]>() {{
@@ -376,6 +407,47 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  public void shouldRenderStaticForEachContentsLikeDynamicOnes() throws Exception {
+    final Map<String, Object> param = new HashMap<String, Object>();
+    List<Bean> beans = new ArrayList<Bean>();
+    beans.add(new Bean("a"));
+    beans.add(new Bean("b"));
+    param.put("beans", beans);
+    param.put("u", "xyz");
+    String body = "#{u.id}, #{ u,typeHandler=org.apache.ibatis.type.StringTypeHandler}, #{i}, #{uu}, \\#{u}";
+    BoundSql dynamicSql = createDynamicSqlSource(new TextSqlNode("VALUES"), new ForEachSqlNode(new Configuration(),
+        mixedContents(new TextSqlNode(body), new TextSqlNode(" ")), "beans", "i", "u", "(", ")", "),(")).getBoundSql(param);
+    BoundSql staticSql = createDynamicSqlSource(new TextSqlNode("VALUES"), new ForEachSqlNode(new Configuration(),
+        mixedContents(new StaticTextSqlNode(body), new StaticTextSqlNode(" ")), "beans", "i", "u", "(", ")", "),(")).getBoundSql(param);
+    assertEquals(dynamicSql.getSql(), staticSql.getSql());
+    assertEquals(dynamicSql.getParameterMappings().size(), staticSql.getParameterMappings().size());
+    for (int i = 0; i < dynamicSql.getParameterMappings().size(); i++) {
+      ParameterMapping expected = dynamicSql.getParameterMappings().get(i);
+      ParameterMapping actual = staticSql.getParameterMappings().get(i);
+      assertEquals(expected.getProperty(), actual.getProperty());
+      assertEquals(expected.getJavaType(), actual.getJavaType());
+      assertEquals(expected.getTypeHandler().getClass(), actual.getTypeHandler().getClass());
+    }
+    assertEquals("__frch_u_1.id", staticSql.getParameterMappings().get(5).getProperty());
+    assertEquals("b", staticSql.getAdditionalParameter("__frch_u_1.id"));
+    assertEquals(1, staticSql.getAdditionalParameter("__frch_i_1"));
+    assertFalse(staticSql.hasAdditionalParameter("i"));
+  }
+
+  @Test
+  public void shouldBindOnlyReferencedNamesForStaticForEachContents() throws Exception {
+    final Map<String, Object> param = new HashMap<String, Object>();
+    param.put("ids", Arrays.asList(1, 2, 3));
+    DynamicSqlSource source = createDynamicSqlSource(new StaticTextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new StaticTextSqlNode("#{id}")), "ids", "index", "id", "(", ")", ","));
+    BoundSql boundSql = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE ID in (  ? , ? , ? )", boundSql.getSql());
+    assertEquals("__frch_id_2", boundSql.getParameterMappings().get(2).getProperty());
+    assertEquals(3, boundSql.getAdditionalParameter("__frch_id_2"));
+    assertFalse(boundSql.hasAdditionalParameter("__frch_index_0"));
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
@@ -0,0 +1,134 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+public class ResolverUtilTest {
+
+  @Test
+  public void shouldFindClassesThroughTheIndex() throws Exception {
+    Path output = compile(
+        "package sample.index; public interface BaseMapper {}",
+        "package sample.index; public interface UserMapper extends BaseMapper {}",
+        "package sample.index; public class Holder { public static class NestedMapper implements BaseMapper {} }",
+        "package sample.index; @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)"
+            + " public @interface Marker {}",
+        "package sample.index.sub; @sample.index.Marker public class Marked {}");
+    assertThat(output.resolve(ClassIndex.RESOURCE)).exists();
+
+    try (LoadRecordingClassLoader loader = new LoadRecordingClassLoader(output)) {
+      ResolverUtil<Object> implementations = new ResolverUtil<>();
+      implementations.setClassLoader(loader);
+      implementations.findImplementations(loader.loadClass("sample.index.BaseMapper"), "sample.index");
+      assertThat(names(implementations.getClasses()))
+          .containsExactly("sample.index.BaseMapper", "sample.index.Holder$NestedMapper", "sample.index.UserMapper");
+      assertThat(loader.loaded).doesNotContain("sample.index.Holder", "sample.index.Marker", "sample.index.sub.Marked");
+
+      ResolverUtil<Object> annotated = new ResolverUtil<>();
+      annotated.setClassLoader(loader);
+      @SuppressWarnings("unchecked")
+      Class<? extends Annotation> marker =
+          (Class<? extends Annotation>) loader.loadClass("sample.index.Marker");
+      annotated.findAnnotated(marker, "sample.index");
+      assertThat(names(annotated.getClasses())).containsExactly("sample.index.sub.Marked");
+      assertThat(loader.loaded).doesNotContain("sample.index.Holder");
+    }
+  }
+
+  @Test
+  public void shouldReadIndexEntriesWithoutTypes() throws Exception {
+    List<ClassIndex.Entry> entries = ClassIndex.read(new StringReader(
+        "# comment\nsample.Plain\nsample.Typed=sample.Base,java.lang.Object,@sample.Marker\n"));
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(0).mayBeA("sample.Base")).isTrue();
+    assertThat(entries.get(1).mayBeA("sample.Base")).isTrue();
+    assertThat(entries.get(1).mayBeA("sample.Other")).isFalse();
+    assertThat(entries.get(1).mayBeAnnotatedWith("sample.Marker")).isTrue();
+    assertThat(entries.get(1).mayBeAnnotatedWith("sample.Other")).isFalse();
+    assertThat(entries.get(1).toLine()).isEqualTo("sample.Typed=java.lang.Object,sample.Base,@sample.Marker");
+  }
+
+  private Path compile(String... sources) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    Assumptions.assumeTrue(compiler != null, "A JDK is required to run the annotation processor");
+
+    Path sourceDir = Files.createTempDirectory("class_index_src");
+    Path output = Files.createTempDirectory("class_index");
+    List<File> files = new ArrayList<>();
+    for (String source : sources) {
+      String packageName = source.substring("package ".length(), source.indexOf(';'));
+      String typeName = source.replaceAll("(?s).*?public (?:interface|class|@interface) (\\w+).*", "$1");
+      Path file = Files.createDirectories(sourceDir.resolve(packageName.replace('.', '/'))).resolve(typeName + ".java");
+      Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+      files.add(file.toFile());
+    }
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+          Arrays.asList("-d", output.toString()), null, units);
+      task.setProcessors(Collections.singletonList(new ClassIndexProcessor()));
+      assertThat(task.call()).isTrue();
+    }
+    return output;
+  }
+
+  private static Set<String> names(Set<? extends Class<?>> classes) {
+    Set<String> names = new TreeSet<>();
+    for (Class<?> type : classes) {
+      names.add(type.getName());
+    }
+    return names;
+  }
+
+  private static class LoadRecordingClassLoader extends URLClassLoader {
+    private final Set<String> loaded = Collections.synchronizedSet(new TreeSet<>());
+
+    LoadRecordingClassLoader(Path classes) throws IOException {
+      super(new URL[] { classes.toUri().toURL() }, ResolverUtilTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      loaded.add(name);
+      return super.findClass(name);
+    }
+  }
+}
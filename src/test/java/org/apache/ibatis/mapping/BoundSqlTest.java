@@ -58,6 +58,32 @@ public class BoundSqlTest {
     assertTrue(boundSql.hasAdditionalParameter("array[99]"), "should return true even if the element does not exists.");
   }
 
+  @Test
+  public void shouldUseTheGivenAdditionalParametersWithoutCopying() throws Exception {
+    List<ParameterMapping> params = Collections.emptyList();
+    Map<String, Object> bindings = new HashMap<String, Object>() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Object get(Object key) {
+        return containsKey(key) ? super.get(key) : "resolved " + key;
+      }
+    };
+    Person bean = new Person();
+    bean.id = 1;
+    bindings.put("person", bean);
+    BoundSql boundSql = new BoundSql(new Configuration(), "some sql", params, new Object(), bindings);
+
+    bindings.put("id", 2);
+    boundSql.setAdditionalParameter("name", "User1");
+
+    assertEquals(2, boundSql.getAdditionalParameter("id"));
+    assertEquals(1, boundSql.getAdditionalParameter("person.id"));
+    assertEquals("User1", bindings.get("name"));
+    assertNull(boundSql.getAdditionalParameter("pet"));
+    assertNull(boundSql.getAdditionalParameter("pet.name"));
+  }
+
   public static class Person {
     public Integer id;
   }
@@ -16,11 +16,27 @@
 package org.apache.ibatis.parsing;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.FactoryConfigurationError;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
 import org.apache.ibatis.io.Resources;
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.NodeList;
 
 public class XPathParserTest {
 
@@ -44,4 +60,68 @@ public class XPathParserTest {
     }
   }
 
+  @Test
+  public void shouldValidateEveryDocumentWithTheSharedFactories() {
+    String header = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n";
+    for (int i = 0; i < 2; i++) {
+      XPathParser parser = new XPathParser(header + "<mapper namespace=\"ns\"><select id=\"s\">select 1</select></mapper>",
+          true, null, new XMLMapperEntityResolver());
+      assertEquals("ns", parser.evalString("/mapper/@namespace"));
+      assertThrows(BuilderException.class, () -> new XPathParser(header + "<mapper namespace=\"ns\"><unknown/></mapper>",
+          true, null, new XMLMapperEntityResolver()));
+    }
+  }
+
+  @Test
+  public void shouldSelectElementPathsLikeXPath() throws Exception {
+    String xml = "<mapper namespace=\"ns\">"
+        + "<sql id=\"a\"/><select id=\"s1\"><selectKey/></select><insert id=\"i1\"/>"
+        + "<resultMap id=\"r\"><id/><result/></resultMap><select id=\"s2\"/><cache-ref/>"
+        + "</mapper>";
+    XPathParser parser = new XPathParser(xml);
+    XNode mapper = parser.evalNode("/mapper");
+    XPath xpath = XPathFactory.newInstance().newXPath();
+    String[] expressions = {"/mapper", "mapper", "/mapper/select", "select|insert|update|delete", "select/selectKey",
+        "/mapper/resultMap/result", "cache-ref", "cache", "*", "select[@id='s2']", "//result"};
+    for (String expression : expressions) {
+      for (Object root : new Object[] {parser.evalNode("/").getNode(), mapper.getNode()}) {
+        NodeList expected = (NodeList) xpath.evaluate(expression, root, XPathConstants.NODESET);
+        List<XNode> actual = parser.evalNodes(root, expression);
+        assertEquals(expected.getLength(), actual.size(), expression);
+        for (int i = 0; i < expected.getLength(); i++) {
+          assertSame(expected.item(i), actual.get(i).getNode(), expression);
+        }
+        XNode first = parser.evalNode(root, expression);
+        assertSame(expected.getLength() == 0 ? null : expected.item(0), first == null ? null : first.getNode(), expression);
+      }
+    }
+  }
+
+  @Test
+  public void shouldLookUpTheFactoriesAgainWhenTheJaxpPropertiesChange() {
+    assertEquals("value", new XPathParser("<root><a>value</a></root>").evalString("/root/a"));
+    System.setProperty(DocumentBuilderFactory.class.getName(), "org.apache.ibatis.parsing.MissingFactory");
+    try {
+      assertThrows(FactoryConfigurationError.class, () -> new XPathParser("<root/>"));
+    } finally {
+      System.clearProperty(DocumentBuilderFactory.class.getName());
+    }
+    assertEquals("value", new XPathParser("<root><a>value</a></root>").evalString("/root/a"));
+  }
+
+  @Test
+  public void shouldOnlyKeepABoundedNumberOfElementPaths() throws Exception {
+    XPathParser parser = new XPathParser("<root><a id=\"1\">one</a></root>");
+    for (int i = 0; i < 500; i++) {
+      assertEquals(i == 1 ? "one" : "", parser.evalString("/root/a[@id='" + i + "']"));
+      parser.evalNodes("/root/a" + i);
+    }
+    Field field = Class.forName(XPathParser.class.getName() + "$ElementPath").getDeclaredField("PATHS");
+    field.setAccessible(true);
+    Map<?, ?> paths = (Map<?, ?>) field.get(null);
+    assertTrue(paths.size() <= 256);
+    assertFalse(paths.containsKey("/root/a[@id='1']"));
+  }
+
 }
@@ -17,9 +17,16 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.ibatis.reflection.SystemMetaObject;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -39,6 +46,108 @@ public class PluginTest {
     assertFalse("Always".equals(map.toString()));
   }
 
+  @Test
+  public void shouldNotWrapTargetWithoutInterceptedInterfaces() {
+    AlwaysMapPlugin plugin = new AlwaysMapPlugin();
+    List list = new ArrayList();
+    assertSame(list, plugin.plugin(list));
+    // second time from the cached interfaces
+    assertSame(list, plugin.plugin(list));
+    assertTrue(Proxy.isProxyClass(plugin.plugin(new HashMap()).getClass()));
+    assertTrue(Proxy.isProxyClass(plugin.plugin(new HashMap()).getClass()));
+  }
+
+  @Test
+  public void shouldApplyChainedInterceptorsWithOneProxy() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new RecordingMapPlugin("outer", calls));
+    Map map = new HashMap();
+    map.put("key", "value");
+    Map wrapped = (Map) chain.pluginAll(map);
+    assertTrue(Proxy.isProxyClass(wrapped.getClass()));
+    // plugins unwrap the target through the "target" field of the handler
+    assertSame(map, SystemMetaObject.forObject(Proxy.getInvocationHandler(wrapped)).getValue("target"));
+    assertEquals("value", wrapped.get("key"));
+    assertEquals(Arrays.asList("outer", "inner"), calls);
+  }
+
+  @Test
+  public void shouldReuseTheProxyClassForLaterTargets() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    Map first = (Map) chain.pluginAll(new HashMap());
+    Map map = new HashMap();
+    map.put("key", "value");
+    Map second = (Map) chain.pluginAll(map);
+    assertSame(first.getClass(), second.getClass());
+    assertSame(map, SystemMetaObject.forObject(Proxy.getInvocationHandler(second)).getValue("target"));
+    assertEquals("value", second.get("key"));
+    assertEquals(Arrays.asList("inner"), calls);
+  }
+
+  @Test
+  public void shouldInvokeNotInterceptedMethodDirectly() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new RecordingMapPlugin("outer", calls));
+    Map map = (Map) chain.pluginAll(new HashMap());
+    assertEquals(0, map.size());
+    assertTrue(calls.isEmpty());
+  }
+
+  @Test
+  public void shouldExposeInnerInterceptorsThroughTarget() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new TargetCallingMapPlugin());
+    Map map = new HashMap();
+    map.put("key", "value");
+    Map wrapped = (Map) chain.pluginAll(map);
+    assertEquals("value", wrapped.get("key"));
+    assertEquals(Arrays.asList("inner"), calls);
+  }
+
+  @Test
+  public void shouldMixChainedAndCustomPlugins() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new AlwaysMapPlugin());
+    chain.addInterceptor(new RecordingMapPlugin("outer", new ArrayList<>()));
+    Map map = (Map) chain.pluginAll(new HashMap());
+    assertEquals("Always", map.get("Anything"));
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class RecordingMapPlugin implements Interceptor {
+    private final String name;
+    private final List<String> calls;
+
+    public RecordingMapPlugin(String name, List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name);
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts({
+      @Signature(type = Map.class, method = "get", args = {Object.class})})
+  public static class TargetCallingMapPlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      return ((Map) invocation.getTarget()).get(invocation.getArgs()[0]);
+    }
+  }
+
   @Intercepts({
       @Signature(type = Map.class, method = "get", args = {Object.class})})
   public static class AlwaysMapPlugin implements Interceptor {
@@ -21,8 +21,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Post;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
@@ -36,6 +39,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +75,74 @@ public class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  public void setParametersWithTheBindingPlanOfEachParameterClass() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    parameterMappings.add(new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build());
+    parameterMappings.add(new ParameterMapping.Builder(config, "author.username", registry.getTypeHandler(String.class)).build());
+
+    Author author = new Author(101, "jim", null, null, null, null);
+    Post post = new Post();
+    post.setId(1);
+    post.setAuthor(author);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ParameterBindingPlanCache plans = config.getParameterBindingPlanCache();
+    new DefaultParameterHandler(mappedStatement, post, new BoundSql(config, "sql", parameterMappings, post)).setParameters(ps);
+    ParameterBindingPlan plan = plans.get(mappedStatement, parameterMappings, Post.class);
+    new DefaultParameterHandler(mappedStatement, post, new BoundSql(config, "sql", new ArrayList<>(parameterMappings), post)).setParameters(ps);
+    Assertions.assertSame(plan, plans.get(mappedStatement, parameterMappings, Post.class));
+    verify(ps, times(2)).setInt(1, 1);
+    verify(ps, times(2)).setString(2, "jim");
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", 2);
+    map.put("author", author);
+    new DefaultParameterHandler(mappedStatement, map, new BoundSql(config, "sql", parameterMappings, map)).setParameters(ps);
+    ParameterBindingPlan mapPlan = plans.get(mappedStatement, parameterMappings, HashMap.class);
+    Assertions.assertNotSame(plan, mapPlan);
+    // alternating parameter classes reuse the plan of each class
+    new DefaultParameterHandler(mappedStatement, post, new BoundSql(config, "sql", parameterMappings, post)).setParameters(ps);
+    Assertions.assertSame(plan, plans.get(mappedStatement, parameterMappings, Post.class));
+    Assertions.assertSame(mapPlan, plans.get(mappedStatement, parameterMappings, HashMap.class));
+    verify(ps).setInt(1, 2);
+    verify(ps, times(4)).setString(2, "jim");
+
+    BoundSql boundSql = new BoundSql(config, "sql", parameterMappings, post);
+    boundSql.setAdditionalParameter("id", 3);
+    new DefaultParameterHandler(mappedStatement, post, boundSql).setParameters(ps);
+    verify(ps).setInt(1, 3);
+  }
+
+  @Test
+  public void setParametersWithoutPlanWhenTheMappingsAreParsedAgain() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    List<ParameterMapping> parameterMappings = Collections.singletonList(
+        new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build());
+    Author author = new Author(101, "jim", null, null, null, null);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    ParameterBindingPlanCache plans = config.getParameterBindingPlanCache();
+    new DefaultParameterHandler(mappedStatement, author, new BoundSql(config, "sql", parameterMappings, author)).setParameters(ps);
+    new DefaultParameterHandler(mappedStatement, author, new BoundSql(config, "sql", parameterMappings, author)).setParameters(ps);
+    ParameterBindingPlan plan = plans.get(mappedStatement, parameterMappings, Author.class);
+    Assertions.assertNotNull(plan);
+
+    // e.g. SQL too long for the SQL source cache
+    for (int i = 0; i < ParameterBindingPlanCache.MAX_PLANS_PER_STATEMENT * 2; i++) {
+      List<ParameterMapping> parsedAgain = Collections.singletonList(
+          new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build());
+      new DefaultParameterHandler(mappedStatement, author, new BoundSql(config, "sql", parsedAgain, author)).setParameters(ps);
+    }
+    verify(ps, times(2 + ParameterBindingPlanCache.MAX_PLANS_PER_STATEMENT * 2)).setInt(1, 101);
+    Assertions.assertNull(plans.get(mappedStatement, Collections.singletonList(
+        new ParameterMapping.Builder(config, "id", registry.getTypeHandler(Integer.class)).build()), Author.class));
+    Assertions.assertSame(plan, plans.get(mappedStatement, parameterMappings, Author.class));
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
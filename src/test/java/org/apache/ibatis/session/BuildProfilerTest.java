@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.session.BuildProfiler.Kind;
+import org.apache.ibatis.session.BuildProfiler.Measurement;
+import org.apache.ibatis.session.BuildProfiler.ResourceProfile;
+import org.junit.jupiter.api.Test;
+
+public class BuildProfilerTest {
+
+  @Test
+  public void shouldAttributeWorkToTheInnermostResource() throws Exception {
+    BuildProfiler profiler = new BuildProfiler();
+    try (Measurement outer = profiler.start(Kind.MAPPER_PACKAGE, "org.example")) {
+      BuildProfiler.classLoaded();
+      try (Measurement inner = profiler.start(Kind.MAPPER_CLASS, "org.example.Mapper")) {
+        new Reflector(BuildProfilerTest.class);
+        BuildProfiler.statementBuilt(System.nanoTime());
+        BuildProfiler.incompleteElementRetried();
+        Thread.sleep(20);
+      }
+    }
+    // nothing is measured outside a measurement
+    BuildProfiler.classLoaded();
+
+    List<ResourceProfile> profiles = profiler.getProfiles();
+    assertThat(profiles).extracting(ResourceProfile::getResource).containsExactly("org.example.Mapper", "org.example");
+    ResourceProfile mapper = profiles.get(0);
+    assertThat(mapper.getNanos()).isGreaterThanOrEqualTo(20_000_000L);
+    assertThat(mapper.getStatements()).isEqualTo(1);
+    assertThat(mapper.getIncompleteElementRetries()).isEqualTo(1);
+    assertThat(mapper.getReflectors()).isEqualTo(1);
+    ResourceProfile mapperPackage = profiles.get(1);
+    assertThat(mapperPackage.getNanos()).isLessThan(mapper.getNanos());
+    assertThat(mapperPackage.getLoadedClasses()).isEqualTo(1);
+    assertThat(profiler.report()).contains("mapper class org.example.Mapper, 1 statements", "mapper package org.example, 1 classes loaded");
+  }
+
+  @Test
+  public void shouldReportTheWorkOfWorkerThreadsApart() throws Exception {
+    BuildProfiler profiler = new BuildProfiler();
+    try (Measurement measurement = profiler.start(Kind.MAPPER_CLASS, "org.example.Mapper")) {
+      Thread worker = new Thread(() -> {
+        try (Measurement parallel = profiler.startInParallel(Kind.MAPPER_CLASS, "org.example.Mapper")) {
+          new Reflector(BuildProfilerTest.class);
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      worker.start();
+      worker.join();
+    }
+
+    List<ResourceProfile> profiles = profiler.getProfiles();
+    assertThat(profiles).hasSize(1);
+    ResourceProfile mapper = profiles.get(0);
+    assertThat(mapper.getParallelNanos()).isGreaterThanOrEqualTo(20_000_000L);
+    assertThat(mapper.getReflectors()).isEqualTo(1);
+    assertThat(profiler.report()).contains("in parallel:", "mapper class org.example.Mapper, ", " ms in parallel, 1 reflectors");
+  }
+
+  @Test
+  public void shouldMeasureNothingWithoutAProfiler() {
+    try (Measurement measurement = BuildProfiler.start(null, Kind.CONFIGURATION, "config")) {
+      BuildProfiler.classLoaded();
+    }
+  }
+}
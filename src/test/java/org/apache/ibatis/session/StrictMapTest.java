@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.ibatis.session.Configuration.StrictMap;
+import org.junit.jupiter.api.Test;
+
+public class StrictMapTest {
+
+  @Test
+  public void shouldSeeChangesMadeAfterLookupsFroze() {
+    StrictMap<String> map = new StrictMap<>("Test collection");
+    map.put("a.first", "first");
+    map.put("b.first", "other first");
+    map.put("a.second", "second");
+    for (int i = 0; i < 10; i++) {
+      assertThat(map.get("second")).isEqualTo("second");
+    }
+
+    assertThat(map.get("a.first")).isEqualTo("first");
+    assertThrows(IllegalArgumentException.class, () -> map.get("first"));
+    assertThrows(IllegalArgumentException.class, () -> map.get("missing"));
+
+    map.put("a.third", "third");
+    assertThat(map.get("third")).isEqualTo("third");
+    map.remove("a.second");
+    for (int i = 0; i < 10; i++) {
+      assertThrows(IllegalArgumentException.class, () -> map.get("second"));
+      assertThrows(IllegalArgumentException.class, () -> map.get("a.second"));
+      assertThat(map.get("third")).isEqualTo("third");
+    }
+    map.clear();
+    assertThrows(IllegalArgumentException.class, () -> map.get("a.third"));
+  }
+
+  @Test
+  public void shouldSeeChangesMadeThroughViewsAndDefaultMethodsAfterLookupsFroze() {
+    StrictMap<String> map = new StrictMap<>("Test collection");
+    map.put("a.first", "first");
+    map.put("a.second", "second");
+    map.put("a.third", "third");
+    map.put("a.fourth", "fourth");
+    map.put("a.fifth", "fifth");
+    map.put("a.sixth", "sixth");
+
+    freeze(map, "a.first");
+    map.keySet().remove("a.first");
+    assertThrows(IllegalArgumentException.class, () -> map.get("a.first"));
+
+    freeze(map, "a.second");
+    Iterator<String> values = map.values().iterator();
+    while (values.hasNext()) {
+      if (values.next().equals("second")) {
+        values.remove();
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> map.get("second"));
+
+    freeze(map, "a.third");
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      if (entry.getKey().equals("a.third")) {
+        entry.setValue("new third");
+      }
+    }
+    assertThat(map.get("a.third")).isEqualTo("new third");
+
+    freeze(map, "a.fourth");
+    map.replace("a.fourth", "new fourth");
+    assertThat(map.get("a.fourth")).isEqualTo("new fourth");
+
+    freeze(map, "a.fifth");
+    map.computeIfPresent("a.fifth", (key, value) -> null);
+    assertThrows(IllegalArgumentException.class, () -> map.get("a.fifth"));
+
+    freeze(map, "a.sixth");
+    map.merge("a.sixth", "!", String::concat);
+    assertThat(map.get("a.sixth")).isEqualTo("sixth!");
+  }
+
+  private static void freeze(StrictMap<String> map, String key) {
+    for (int i = 0; i <= map.size(); i++) {
+      map.get(key);
+    }
+  }
+
+  @Test
+  public void shouldRejectDuplicatesAfterLookupsFroze() {
+    StrictMap<String> map = new StrictMap<>("Test collection");
+    map.put("a.first", "first");
+    for (int i = 0; i < 10; i++) {
+      map.get("first");
+    }
+    assertThrows(IllegalArgumentException.class, () -> map.put("a.first", "again"));
+    assertThat(map.get("first")).isEqualTo("first");
+  }
+
+  @Test
+  public void shouldAnswerOtherThreadsFromTheHeldEntriesUntilPublished() throws Exception {
+    StrictMap<String> map = new StrictMap<>("Test collection");
+    map.put("a.first", "first");
+    map.put("a.second", "second");
+
+    map.hold();
+    map.remove("a.first");
+    map.remove("a.second");
+    map.put("a.second", "new second");
+    map.put("a.third", "third");
+    assertThrows(IllegalArgumentException.class, () -> map.get("first"));
+    assertThat(map.get("second")).isEqualTo("new second");
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(executor.submit(() -> map.get("a.first")).get()).isEqualTo("first");
+      assertThat(executor.submit(() -> map.containsKey("a.first")).get()).isTrue();
+      assertThat(executor.submit(() -> map.get("second")).get()).isEqualTo("second");
+      assertThat(executor.submit(() -> map.get("third")).get()).isEqualTo("third");
+
+      map.publish();
+      assertThat(executor.submit(() -> map.containsKey("a.first")).get()).isFalse();
+      assertThat(executor.submit(() -> map.get("second")).get()).isEqualTo("new second");
+    } finally {
+      executor.shutdown();
+    }
+    assertThrows(IllegalArgumentException.class, () -> map.get("a.first"));
+  }
+}
@@ -54,6 +54,20 @@ public class DefaultMethodTest {
     }
   }
 
+  @Test
+  public void shouldInvokeDefaultMethodOnTheProxyItIsCalledOn() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        SqlSession otherSqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Mapper otherMapper = otherSqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.defaultGetUser(1).getName());
+      assertEquals("User1", mapper.defaultGetFirstUser().getName());
+      // the cached handle must not stay bound to the first proxy
+      sqlSession.close();
+      assertEquals("User1", otherMapper.defaultGetUser(1).getName());
+    }
+  }
+
   @Test
   public void shouldInvokeDefaultMethodOfSubclass() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -30,6 +30,10 @@ public interface Mapper {
     return getUserById((Integer) args[0]);
   }
 
+  default User defaultGetFirstUser() {
+    return getUserById(1);
+  }
+
   static interface SubMapper extends Mapper {
     default User defaultGetUser(Object... args) {
       return getUserByIdAndName((String) args[0], (Integer) args[1]);
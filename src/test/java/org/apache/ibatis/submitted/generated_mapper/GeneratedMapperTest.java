@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.generated_mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperImplementationProcessor;
+import org.apache.ibatis.binding.MapperProxyFactory;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class GeneratedMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    Assumptions.assumeTrue(compiler != null, "A JDK is required to run the annotation processor");
+
+    // run the processor over the mapper source
+    File source = new File(System.getProperty("basedir", "."),
+        "src/test/java/org/apache/ibatis/submitted/generated_mapper/Mapper.java");
+    File output = Files.createTempDirectory("generated_mapper").toFile();
+    int status = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+        "-processor", MapperImplementationProcessor.class.getName(), "-d", output.getPath(), "-s", output.getPath(),
+        source.getPath());
+    assertEquals(0, status);
+
+    // create an SqlSessionFactory that can see the generated class
+    ClassLoader original = Thread.currentThread().getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toURI().toURL() }, GeneratedMapperTest.class.getClassLoader());
+         Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/generated_mapper/mybatis-config.xml")) {
+      Thread.currentThread().setContextClassLoader(loader);
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    } finally {
+      Thread.currentThread().setContextClassLoader(original);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/generated_mapper/CreateDB.sql");
+  }
+
+  @Test
+  public void shouldUseGeneratedImplementation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertFalse(Proxy.isProxyClass(mapper.getClass()));
+      assertEquals(Mapper.class.getName() + MapperProxyFactory.GENERATED_IMPLEMENTATION_SUFFIX, mapper.getClass().getName());
+    }
+  }
+
+  @Test
+  public void shouldSelectThroughGeneratedImplementation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertEquals("User2", mapper.getUserByIdAndName(2, "User2").getName());
+      assertNull(mapper.getUserByIdAndName(2, "User1"));
+      List<User> users = mapper.getUsers();
+      assertEquals(Arrays.asList("User1", "User2"), Arrays.asList(users.get(0).getName(), users.get(1).getName()));
+      assertEquals("User1", mapper.defaultGetUser(1).getName());
+    }
+  }
+
+  @Test
+  public void shouldFailOnlyWhenAnUnboundMethodIsCalled() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertThrows(BindingException.class, () -> mapper.getUnbound(1));
+    }
+  }
+
+  @Test
+  public void shouldUpdateThroughGeneratedImplementation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = new User();
+      user.setId(3);
+      user.setName("User3");
+      mapper.insertUser(user);
+      assertEquals(3, mapper.count());
+      sqlSession.rollback();
+    }
+  }
+
+}
@@ -55,9 +55,25 @@ public class RawSqlSourceTest {
     test("getUser2", DynamicSqlSource.class);
   }
 
+  @Test
+  public void shouldUseRawSqlSourceForAnStatementWithConstantXmlTags() {
+    test("getUser3", RawSqlSource.class);
+  }
+
   @Test
   public void shouldUseDynamicSqlSourceForAnStatementWithXmlTags() {
-    test("getUser3", DynamicSqlSource.class);
+    test("getUser4", DynamicSqlSource.class);
+  }
+
+  @Test
+  public void shouldUseRawSqlSourceForAnStatementWithDatabaseIdTests() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      SqlSource sqlSource = sqlSession.getConfiguration().getMappedStatement("getUser5").getSqlSource();
+      Assertions.assertEquals(RawSqlSource.class, sqlSource.getClass());
+      Assertions.assertEquals("select * from users WHERE id = ?", sqlSource.getBoundSql(1).getSql().replaceAll("\\s+", " "));
+      User user = sqlSession.selectOne("getUser5", 1);
+      Assertions.assertEquals("User1", user.getName());
+    }
   }
 
   private void test(String statement, Class<? extends SqlSource> sqlSource) {
@@ -27,11 +27,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.SqlSourceCache;
 import org.apache.ibatis.builder.annotation.ProviderContext;
 import org.apache.ibatis.builder.annotation.ProviderSqlSource;
 import org.apache.ibatis.io.Resources;
@@ -456,6 +458,38 @@ public class SqlProviderTest {
     }
   }
 
+  @Test
+  public void shouldInvokeDeterministicProviderOncePerParameterType() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StaticMethodSqlProviderMapper mapper =
+          sqlSession.getMapper(StaticMethodSqlProviderMapper.class);
+      int invocations = StaticMethodSqlProviderMapper.SqlProvider.deterministicInvocations.get();
+      assertEquals(1, mapper.countUsersUpTo(1));
+      assertEquals(3, mapper.countUsersUpTo(3));
+      assertEquals(invocations + 1, StaticMethodSqlProviderMapper.SqlProvider.deterministicInvocations.get());
+    }
+  }
+
+  @Test
+  public void shouldShareParsedSqlOnlyForCacheableProviders() {
+    SqlSourceCache cache = sqlSessionFactory.getConfiguration().getSqlSourceCache();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      StaticMethodSqlProviderMapper mapper =
+          sqlSession.getMapper(StaticMethodSqlProviderMapper.class);
+      int size = cache.getSize();
+      assertEquals(1, mapper.countUsersInlined(1));
+      assertEquals(2, mapper.countUsersInlined(2));
+      assertEquals(3, mapper.countUsersInlined(3));
+      assertEquals(size, cache.getSize());
+
+      long hits = cache.getHitCount();
+      assertEquals(1, mapper.countUsersCacheable(1));
+      assertEquals(3, mapper.countUsersCacheable(3));
+      assertEquals(size + 1, cache.getSize());
+      assertEquals(hits + 1, cache.getHitCount());
+    }
+  }
+
   public interface ErrorMapper {
     @SelectProvider(type = ErrorSqlBuilder.class, method = "methodNotFound")
     void methodNotFound();
@@ -508,8 +542,19 @@ public class SqlProviderTest {
     @SelectProvider(type = SqlProvider.class, method = "oneArgumentAndProviderContext")
     String oneArgumentAndProviderContext(Integer value);
 
+    @SelectProvider(type = SqlProvider.class, method = "countUsersUpTo", deterministic = true)
+    int countUsersUpTo(Integer id);
+
+    @SelectProvider(type = SqlProvider.class, method = "countUsersInlined")
+    int countUsersInlined(Integer id);
+
+    @SelectProvider(type = SqlProvider.class, method = "countUsersCacheable", cacheable = true)
+    int countUsersCacheable(Integer id);
+
     class SqlProvider {
 
+      static final AtomicInteger deterministicInvocations = new AtomicInteger();
+
       public static String noArgument() {
         return "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS";
       }
@@ -534,6 +579,19 @@ public class SqlProviderTest {
             + "' FROM INFORMATION_SCHEMA.SYSTEM_USERS";
       }
 
+      public static String countUsersUpTo() {
+        deterministicInvocations.incrementAndGet();
+        return "SELECT COUNT(*) FROM users WHERE id <= #{id}";
+      }
+
+      public static String countUsersInlined(Integer id) {
+        return "SELECT COUNT(*) FROM users WHERE id <= " + id;
+      }
+
+      public static String countUsersCacheable() {
+        return "SELECT COUNT(*) FROM users WHERE id <= #{id} AND 1 = 1";
+      }
+
     }
 
   }
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs thousands of concurrent sessions against a pool of only a few connections.
+ * <p>
+ * On a JDK with virtual threads the sessions are run on a virtual thread per task executor, and the same sessions are
+ * also run in a separate JVM started with {@code -Djdk.tracePinnedThreads=short}, which must not report any carrier
+ * thread pinned by a monitor held in MyBatis. The uncached statement is built on first use by the concurrent sessions.
+ * On older JDKs a platform thread pool is used instead.
+ */
+public class VirtualThreadsTest {
+
+  private static final int SESSIONS = 2000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    sqlSessionFactory = createSqlSessionFactory();
+  }
+
+  private static SqlSessionFactory createSqlSessionFactory() throws Exception {
+    SqlSessionFactory sqlSessionFactory;
+    // create an SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/virtual_threads/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+            "org/apache/ibatis/submitted/virtual_threads/CreateDB.sql");
+    return sqlSessionFactory;
+  }
+
+  /**
+   * Runs the sessions of both tests in the JVM started by {@link #shouldNotPinCarrierThreadsInMyBatis()}.
+   */
+  public static void main(String[] args) throws Exception {
+    sqlSessionFactory = createSqlSessionFactory();
+    VirtualThreadsTest test = new VirtualThreadsTest();
+    test.assertResults(test.runSessions(false));
+    test.assertResults(test.runSessions(true));
+  }
+
+  @Test
+  public void shouldServeConcurrentSessionsFromSmallPool() throws Exception {
+    assertResults(runSessions(false));
+  }
+
+  @Test
+  public void shouldServeConcurrentSessionsThroughSecondLevelCache() throws Exception {
+    assertResults(runSessions(true));
+  }
+
+  @Test
+  public void shouldNotPinCarrierThreadsInMyBatis() throws Exception {
+    Assumptions.assumeTrue(hasVirtualThreads(), "Virtual threads are not available");
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    Process process = new ProcessBuilder(java, "-Djdk.tracePinnedThreads=short",
+        "-Djdk.virtualThreadScheduler.parallelism=2", "-cp", System.getProperty("java.class.path"),
+        VirtualThreadsTest.class.getName()).redirectErrorStream(true).start();
+    List<String> pinnedFrames = new ArrayList<>();
+    StringBuilder output = new StringBuilder();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        output.append(line).append('\n');
+        // frames holding a monitor while the virtual thread blocked, e.g. "...popConnection(...) <== monitors:1"
+        if (line.contains("<== monitors") && line.contains("org.apache.ibatis.")) {
+          pinnedFrames.add(line.trim());
+        }
+      }
+    }
+    Assertions.assertTrue(process.waitFor(2, TimeUnit.MINUTES), "The sessions did not complete");
+    Assertions.assertEquals(0, process.exitValue(), output.toString());
+    Assertions.assertEquals(Collections.emptyList(), pinnedFrames, output.toString());
+  }
+
+  private List<Future<String>> runSessions(final boolean useCache) throws Exception {
+    ExecutorService executor = newExecutor();
+    List<Future<String>> results = new ArrayList<>(SESSIONS);
+    try {
+      for (int i = 0; i < SESSIONS; i++) {
+        final int id = i % 4 + 1;
+        results.add(executor.submit(() -> {
+          try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            Mapper mapper = sqlSession.getMapper(Mapper.class);
+            User user = useCache ? mapper.getUser(id) : mapper.getUserUncached(id);
+            return user.getName();
+          }
+        }));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    return results;
+  }
+
+  private void assertResults(List<Future<String>> results) throws Exception {
+    for (int i = 0; i < results.size(); i++) {
+      Assertions.assertEquals("User" + (i % 4 + 1), results.get(i).get());
+    }
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    Assertions.assertEquals(0, dataSource.getPoolState().getActiveConnectionCount());
+    Assertions.assertTrue(dataSource.getPoolState().getIdleConnectionCount() <= 4);
+    Assertions.assertEquals(0, dataSource.getPoolState().getBadConnectionCount());
+  }
+
+  private static boolean hasVirtualThreads() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static ExecutorService newExecutor() {
+    try {
+      // JDK 21+
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(64);
+    }
+  }
+
+}